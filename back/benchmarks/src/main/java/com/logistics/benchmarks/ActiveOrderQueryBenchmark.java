@@ -0,0 +1,164 @@
+package com.logistics.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Consultas de pedidos ativos (as mesmas do OrderRepository) num Postgres embutido com milhões de pedidos,
+// em três layouts: tudo em tb_orders; terminais antigos arquivados; arquivados + tb_orders particionada por mês.
+// A massa cobre 24 meses e os pedidos com mais de 90 dias estão quase todos em COMPLETED/CANCELED.
+// Uso: java -jar benchmarks.jar ActiveOrderQueryBenchmark [-p rows=2000000]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActiveOrderQueryBenchmark {
+
+    private static final String COLUMNS = "id, customer_name, amount, status, created_at";
+
+    @Param({"single", "archived", "partitioned"})
+    public String layout;
+
+    @Param({"2000000"})
+    public int rows;
+
+    private EmbeddedPostgres postgres;
+    private Connection connection;
+    private PreparedStatement pendingFirstPage;
+    private PreparedStatement pendingNextPage;
+    private PreparedStatement firstPage;
+    private PreparedStatement sumByStatus;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            long start = System.nanoTime();
+            statement.execute("""
+                    insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                    select gen_random_uuid(), 'cliente ' || (i %% 5000), (i %% 1000) + 0.99,
+                           case
+                               when created_at < localtimestamp - interval '90 days'
+                                   then (array['COMPLETED','COMPLETED','COMPLETED','CANCELED','DELIVERED'])[1 + i %% 5]
+                               else (array['PENDING','PROCESSED','SHIPPED','DELIVERED','CANCELED','COMPLETED'])[1 + i %% 6]
+                           end,
+                           created_at, 0
+                    from (select i, localtimestamp - (%d - i) * (interval '730 days' / %d) as created_at
+                          from generate_series(1, %d) as i) as seed
+                    """.formatted(rows, rows, rows));
+
+            if (layout.equals("partitioned")) {
+                statement.execute("select orders_partition_by_month(2)");
+            }
+            if (!layout.equals("single")) {
+                archive(statement);
+            }
+            statement.execute("vacuum analyze");
+            System.out.printf("%n[%s] massa pronta em %d ms: %s ativos, %s arquivados%n", layout,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    count(statement, "tb_orders"), count(statement, "tb_orders_archive"));
+        }
+
+        pendingFirstPage = connection.prepareStatement("select " + COLUMNS + """
+                 from tb_orders where status = 'PENDING'
+                order by created_at desc, id desc limit 51
+                """);
+        // Cursor no meio dos pedidos ativos (30 dias atrás)
+        pendingNextPage = connection.prepareStatement("select " + COLUMNS + """
+                 from tb_orders where status = 'PENDING'
+                  and (status, created_at, id) < ('PENDING', ?, 'ffffffff-ffff-ffff-ffff-ffffffffffff')
+                order by created_at desc, id desc limit 51
+                """);
+        pendingNextPage.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+        firstPage = connection.prepareStatement("select " + COLUMNS + """
+                 from tb_orders order by created_at desc, id desc limit 51
+                """);
+        // Reconciliação das estatísticas (OrderStats): varre tb_orders inteira
+        sumByStatus = connection.prepareStatement(
+                "select status, count(*), sum(amount) from tb_orders group by status");
+    }
+
+    // Mesma instrução do ArchivedOrderRepository.archive, em lotes maiores para montar a massa mais rápido
+    private static void archive(Statement statement) throws SQLException {
+        int moved;
+        do {
+            moved = statement.executeUpdate("""
+                    with moved as (
+                        delete from tb_orders o
+                        where (o.id, o.created_at) in (
+                            select id, created_at from tb_orders
+                            where status in ('COMPLETED', 'CANCELED') and created_at < localtimestamp - interval '90 days'
+                            order by created_at
+                            limit 200000
+                            for update skip locked
+                        )
+                        returning o.id, o.customer_name, o.amount, o.status, o.created_at, o.version
+                    )
+                    insert into tb_orders_archive (id, customer_name, amount, status, created_at, version, archived_at)
+                    select id, customer_name, amount, status, created_at, version, localtimestamp from moved
+                    """);
+        } while (moved > 0);
+    }
+
+    private static long count(Statement statement, String table) throws SQLException {
+        try (ResultSet result = statement.executeQuery("select count(*) from " + table)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public int pendingFirstPage(Blackhole blackhole) throws SQLException {
+        return consume(pendingFirstPage, blackhole);
+    }
+
+    @Benchmark
+    public int pendingNextPage(Blackhole blackhole) throws SQLException {
+        return consume(pendingNextPage, blackhole);
+    }
+
+    @Benchmark
+    public int firstPage(Blackhole blackhole) throws SQLException {
+        return consume(firstPage, blackhole);
+    }
+
+    @Benchmark
+    public int sumByStatus(Blackhole blackhole) throws SQLException {
+        return consume(sumByStatus, blackhole);
+    }
+
+    private static int consume(PreparedStatement statement, Blackhole blackhole) throws SQLException {
+        int count = 0;
+        try (ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                blackhole.consume(result.getObject(1));
+                count++;
+            }
+        }
+        return count;
+    }
+}
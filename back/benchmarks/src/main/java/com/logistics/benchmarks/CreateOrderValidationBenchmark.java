@@ -0,0 +1,46 @@
+package com.logistics.benchmarks;
+
+import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bean Validation do POST /orders, incluindo a regex Unicode do nome do cliente
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateOrderValidationBenchmark {
+
+    @Param({"Maria da Silva", "José Antônio de Araújo Conceição Gonçalves", "<script>alert(1)</script>"})
+    public String customerName;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CreateOrderDTO dto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        dto = new CreateOrderDTO(customerName, new BigDecimal("1234.56"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateOrderDTO>> validate() {
+        return validator.validate(dto);
+    }
+}
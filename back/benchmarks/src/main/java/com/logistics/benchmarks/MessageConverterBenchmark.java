@@ -0,0 +1,65 @@
+package com.logistics.benchmarks;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Serialização do evento pelo converter do order-service e leitura pelo converter do notification-service,
+// comparando JSON e o formato binário v1 (o tamanho da mensagem é impresso no setup de cada fork)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConverterBenchmark {
+
+    @Param({"json", "binary"})
+    public String wireFormat;
+
+    private MessageConverter producerConverter;
+    private MessageConverter consumerConverter;
+    private OrderResponseDTO event;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        producerConverter = new com.logistics.order_service.infra.messaging.RabbitMQConfig().messageConverter(wireFormat);
+        consumerConverter = new com.logistics.notification_service.infra.messaging.RabbitMQConfig().messageConverter();
+
+        event = new OrderResponseDTO(UUID.randomUUID(), "Maria da Silva", new BigDecimal("1234.56"),
+                OrderStatus.SHIPPED, LocalDateTime.now());
+        message = encode();
+
+        // Confere que o consumidor lê o que o produtor escreveu antes de medir qualquer coisa
+        message.getMessageProperties().setInferredArgumentType(OrderEventDTO.class);
+        OrderEventDTO decoded = (OrderEventDTO) consumerConverter.fromMessage(message);
+        if (!decoded.id().equals(event.id()) || decoded.amount().compareTo(event.amount()) != 0
+                || !decoded.createdAt().equals(event.createdAt()) || !decoded.status().name().equals(event.status().name())) {
+            throw new IllegalStateException("Evento decodificado difere do original: " + decoded);
+        }
+        System.out.printf("%n# %s: %d bytes por mensagem (%s)%n", wireFormat, message.getBody().length,
+                message.getMessageProperties().getContentType());
+    }
+
+    @Benchmark
+    public Message encode() {
+        return producerConverter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        // O listener informa o tipo do parâmetro; aqui simulamos o mesmo caminho
+        message.getMessageProperties().setInferredArgumentType(OrderEventDTO.class);
+        return consumerConverter.fromMessage(message);
+    }
+}
@@ -0,0 +1,54 @@
+package com.logistics.benchmarks;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import com.logistics.notification_service.infra.messaging.consumers.OrderNotificationRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Texto da notificação montado pelo OrderEventListener para cada evento
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationRenderingBenchmark {
+
+    @Param({"PENDING", "SHIPPED", "DELIVERED"})
+    public OrderStatus status;
+
+    private OrderNotificationRenderer renderer;
+    private OrderEventDTO event;
+
+    @Setup
+    public void setUp() {
+        renderer = new OrderNotificationRenderer();
+        event = new OrderEventDTO(UUID.randomUUID(), "Maria da Silva", new BigDecimal("1234.56"), status,
+                LocalDateTime.now());
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return renderer.render(event);
+    }
+
+    // Referência: a versão anterior, que interpretava o formato a cada evento
+    @Benchmark
+    public String formatted() {
+        return switch (event.status()) {
+            case PENDING -> "Olá %s! Recebemos seu pedido. Ele está sendo processado".formatted(event.customerName());
+            case PROCESSED -> "%s, seu pedido já foi processado".formatted(event.customerName());
+            case SHIPPED ->
+                "Boa notícia, %s! Seu pedido foi enviado e está em rota de entrega.".formatted(event.customerName());
+            case DELIVERED -> "Pedido entregue! Aproveite sua compra.";
+            case CANCELED -> "Atenção: Seu pedido foi cancelado. Verifique os detalhes no app.";
+            case COMPLETED ->
+                "Seu pedido foi finalizado. Obrigado por confiar em nossa loja, %s!".formatted(event.customerName());
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.logistics.benchmarks;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.Order;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Conversão entidade -> DTO feita em toda leitura e escrita do order-service
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .customerName("Maria da Silva")
+                .amount(new BigDecimal("1234.56"))
+                .status(OrderStatus.SHIPPED)
+                .createdAt(LocalDateTime.now())
+                .version(3L)
+                .build();
+    }
+
+    @Benchmark
+    public OrderResponseDTO from() {
+        return OrderResponseDTO.from(order);
+    }
+}
@@ -0,0 +1,186 @@
+package com.logistics.benchmarks.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Carga contra os serviços rodando (ex.: docker compose), para comparar o modo platform x virtual threads:
+ * mantém N conexões SSE abertas e C clientes fazendo leituras bloqueantes (GET /orders/{id} e a primeira página).
+ * Uso: java -cp benchmarks.jar com.logistics.benchmarks.load.VirtualThreadLoadTest label=virtual sse=2000 concurrency=800
+ */
+public class VirtualThreadLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String label = options.getOrDefault("label", "run");
+        String ordersUrl = options.getOrDefault("orders", "http://localhost:8080/orders");
+        String streamUrl = options.getOrDefault("notifications", "http://localhost:8081/notifications/stream");
+        int sseConnections = Integer.parseInt(options.getOrDefault("sse", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "30")));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .executor(clients)
+                     .build()) {
+
+            List<String> ids = seedOrders(http, ordersUrl);
+
+            AtomicInteger sseOpen = new AtomicInteger();
+            LongAdder sseFailed = new LongAdder();
+            for (int i = 0; i < sseConnections; i++) {
+                clients.submit(() -> holdStream(http, streamUrl, sseOpen, sseFailed));
+            }
+
+            AtomicInteger inFlight = new AtomicInteger();
+            AtomicInteger peakInFlight = new AtomicInteger();
+            LongAdder errors = new LongAdder();
+            LongAdder completed = new LongAdder();
+            List<long[]> latencies = new ArrayList<>();
+            long deadline = System.nanoTime() + duration.toNanos();
+
+            List<Future<?>> workers = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                long[] samples = new long[1 << 16];
+                latencies.add(samples);
+                int worker = w;
+                workers.add(clients.submit(() -> {
+                    int n = 0;
+                    while (System.nanoTime() < deadline) {
+                        String url = (n & 1) == 0 ? ordersUrl + "/" + ids.get((worker + n) % ids.size()) : ordersUrl + "?size=50";
+                        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(
+                                    HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        // Amostras em anel: guarda as latências mais recentes de cada cliente
+                        samples[n & (samples.length - 1)] = System.nanoTime() - start;
+                        n++;
+                        completed.increment();
+                    }
+                }));
+            }
+            for (var worker : workers) {
+                worker.get();
+            }
+
+            report(label, sseConnections, sseOpen.get(), sseFailed.sum(), concurrency, peakInFlight.get(),
+                    completed.sum(), errors.sum(), latencies, duration);
+            clients.shutdownNow();
+        }
+    }
+
+    private static List<String> seedOrders(HttpClient http, String ordersUrl) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"customerName\":\"Cliente Carga\",\"amount\":").append(10 + i).append("}");
+        }
+        body.append("]");
+
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(ordersUrl + "/bulk"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        List<String> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(response.body());
+        while (matcher.find()) {
+            ids.add(matcher.group(1));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Não foi possível criar pedidos para a carga: " + response.statusCode());
+        }
+        return ids;
+    }
+
+    private static void holdStream(HttpClient http, String streamUrl, AtomicInteger open, LongAdder failed) {
+        try {
+            HttpResponse<InputStream> response = http.send(
+                    HttpRequest.newBuilder(URI.create(streamUrl)).header("Accept", "text/event-stream").build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                failed.increment();
+                return;
+            }
+            open.incrementAndGet();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                while (reader.readLine() != null) {
+                    // Só mantém a conexão viva consumindo os eventos
+                }
+            } finally {
+                open.decrementAndGet();
+            }
+        } catch (IOException e) {
+            failed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String label, int sseWanted, int sseOpen, long sseFailed, int concurrency,
+            int peakInFlight, long completed, long errors, List<long[]> latencies, Duration duration) {
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(v -> v > 0).sorted().toArray();
+        double seconds = duration.toMillis() / 1000.0;
+
+        System.out.printf("%n== %s ==%n", label);
+        System.out.printf("SSE conectadas ao fim: %d/%d (falhas: %d)%n", sseOpen, sseWanted, sseFailed);
+        System.out.printf("Clientes: %d | pico de requisições em voo: %d%n", concurrency, peakInFlight);
+        System.out.printf("Requisições: %d (%.0f req/s) | erros: %d%n", completed, completed / seconds, errors);
+        if (all.length > 0) {
+            System.out.printf("Latência ms: p50 %.1f | p95 %.1f | p99 %.1f | max %.1f%n",
+                    percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
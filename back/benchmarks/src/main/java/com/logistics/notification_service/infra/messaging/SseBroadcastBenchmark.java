@@ -0,0 +1,55 @@
+package com.logistics.notification_service.infra.messaging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Mesmo pacote do SseService para registrar emitters em memória (sem conexão HTTP)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseBroadcastBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int subscribers;
+
+    // Dispatchers dos shards em platform ou virtual threads (spring.threads.virtual.enabled)
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private SseService sseService;
+
+    @Setup
+    public void setUp() {
+        sseService = new SseService(new SimpleMeterRegistry(), 16, 256, 10_000, 4096,
+                Duration.ofMinutes(10), virtualThreads);
+        for (int i = 0; i < subscribers; i++) {
+            sseService.register(new DiscardingEmitter(), SseSubscription.ALL, null);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sseService.shutdown();
+    }
+
+    // Custo sustentado na thread do listener: com os shards saturados o próprio chamador faz o fan-out (backpressure)
+    @Benchmark
+    public void broadcast() {
+        sseService.broadcast("Boa notícia, Maria! Seu pedido foi enviado e está em rota de entrega.");
+    }
+
+    private static class DiscardingEmitter extends SseEmitter {
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build();
+        }
+    }
+}
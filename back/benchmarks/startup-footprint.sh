@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Compara subida e memória dos serviços nas três imagens: JVM padrão, JVM com cache AOT (Dockerfile.cds)
+# e GraalVM native (Dockerfile.native). Para cada rodada recria os containers e mede:
+# - tempo do `docker compose up` até /actuator/health responder (o que o autoscaler enxerga)
+# - o "Started ... in" do log do Spring
+# - RSS dos processos do container logo após subir e depois de uma carga curta de leituras
+# Pré-requisitos: .env do docker-compose preenchido (Postgres e RabbitMQ acessíveis).
+# Uso: back/benchmarks/startup-footprint.sh [rodadas=3] [requisições de aquecimento=2000]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+COMPOSE=(docker compose -f "$ROOT/docker-compose.yml")
+RUNS="${1:-3}"
+WARMUP="${2:-2000}"
+SERVICES=(order-service:8080 notification-service:8081)
+
+now_ms() {
+  date +%s%3N
+}
+
+wait_healthy() {
+  local deadline=$(( $(now_ms) + 180000 ))
+  until curl -fs "$1/actuator/health" > /dev/null; do
+    if [ "$(now_ms)" -gt "$deadline" ]; then
+      echo "Serviço em $1 não ficou saudável" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+}
+
+# Soma o RSS (KB) de todos os processos do container, em MB
+rss_mb() {
+  docker top "$1" -o rss | awk 'NR > 1 { sum += $1 } END { printf "%d", sum / 1024 }'
+}
+
+started_in() {
+  docker logs "$1" 2>&1 | grep -o 'Started [A-Za-z]* in [0-9.]* seconds' | tail -1 | grep -o '[0-9.]* seconds' || echo "-"
+}
+
+printf "%-10s %-22s %6s %12s %18s %10s %12s\n" imagem serviço rodada "health (ms)" "Started in" "RSS (MB)" "RSS carga"
+for variant in Dockerfile Dockerfile.cds Dockerfile.native; do
+  label=${variant#Dockerfile}
+  label=${label#.}
+  label=${label:-jvm}
+  IMAGE_VARIANT=$variant "${COMPOSE[@]}" build order-service notification-service > /dev/null
+
+  for run in $(seq 1 "$RUNS"); do
+    "${COMPOSE[@]}" rm -sf order-service notification-service > /dev/null 2>&1
+    start=$(now_ms)
+    IMAGE_VARIANT=$variant "${COMPOSE[@]}" up -d --no-build order-service notification-service > /dev/null 2>&1
+
+    for entry in "${SERVICES[@]}"; do
+      name=${entry%%:*}
+      port=${entry##*:}
+      wait_healthy "http://localhost:$port"
+      healthy=$(( $(now_ms) - start ))
+      idle=$(rss_mb "$name")
+
+      for _ in $(seq 1 "$WARMUP"); do
+        curl -fs -o /dev/null "http://localhost:$port/actuator/health"
+        if [ "$name" = order-service ]; then
+          curl -fs -o /dev/null "http://localhost:$port/orders?size=50"
+        fi
+      done
+      printf "%-10s %-22s %6s %12s %18s %10s %12s\n" "$label" "$name" "$run" "$healthy" \
+        "$(started_in "$name")" "$idle" "$(rss_mb "$name")"
+    done
+  done
+done
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compara os serviços em platform threads e em virtual threads com a mesma carga.
+# Pré-requisitos: .env do docker-compose preenchido e `mvn -pl benchmarks -am package` já executado.
+# Uso: back/benchmarks/virtual-threads-load.sh [sse=2000] [concurrency=800] [seconds=30]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+JAR="$ROOT/back/benchmarks/target/benchmarks.jar"
+
+wait_healthy() {
+  for _ in $(seq 1 60); do
+    if curl -fs "$1/actuator/health" > /dev/null; then
+      return 0
+    fi
+    sleep 2
+  done
+  echo "Serviço em $1 não ficou saudável" >&2
+  exit 1
+}
+
+for mode in false true; do
+  VIRTUAL_THREADS_ENABLED=$mode docker compose -f "$ROOT/docker-compose.yml" \
+    up -d --build --force-recreate order-service notification-service
+  wait_healthy http://localhost:8080
+  wait_healthy http://localhost:8081
+
+  label=$([ "$mode" = true ] && echo "virtual threads" || echo "platform threads")
+  java -cp "$JAR" com.logistics.benchmarks.load.VirtualThreadLoadTest "label=$label" "$@"
+done
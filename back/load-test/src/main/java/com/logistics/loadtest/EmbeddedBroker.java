@@ -0,0 +1,57 @@
+package com.logistics.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Broker AMQP 0-9-1 em memória (Qpid Broker-J) no lugar do RabbitMQ: exchange fanout, filas anônimas,
+// publisher confirms e mandatory/returns funcionam como os serviços esperam, sem container
+final class EmbeddedBroker implements AutoCloseable {
+
+    static final String USER = "guest";
+    static final String PASSWORD = "guest";
+
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+
+    private EmbeddedBroker(int port) {
+        this.port = port;
+    }
+
+    static EmbeddedBroker start() throws Exception {
+        EmbeddedBroker broker = new EmbeddedBroker(freePort());
+        Path workDir = Files.createTempDirectory("load-test-broker");
+        broker.launcher.startup(Map.of(
+                "type", "Memory",
+                "initialConfigurationLocation", resource("/qpid-config.json"),
+                "initialSystemPropertiesLocation", resource("/qpid-system.properties"),
+                "startupLoggedToSystemOut", false,
+                "context", Map.of(
+                        "qpid.amqp_port", broker.port,
+                        "qpid.work_dir", workDir.toString())));
+        return broker;
+    }
+
+    String address() {
+        return "localhost:" + port;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+    }
+
+    private static String resource(String name) {
+        return EmbeddedBroker.class.getResource(name).toExternalForm();
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.logistics.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Um Recorder do HdrHistogram por série (operação ou entrega SSE): gravação sem lock nas threads da carga,
+// leitura por intervalo para a linha de progresso e acumulado só depois do aquecimento
+final class Latencies {
+
+    private static final long MAX_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<String, Series> series = new LinkedHashMap<>();
+
+    Latencies(String... names) {
+        for (String name : names) {
+            series.put(name, new Series());
+        }
+    }
+
+    void record(String name, long nanos) {
+        series.get(name).recorder.recordValue(Math.min(Math.max(nanos, 0), MAX_NANOS));
+    }
+
+    void error(String name) {
+        series.get(name).errors.increment();
+    }
+
+    // Fecha o intervalo corrente; measured=false descarta (aquecimento)
+    String interval(double seconds, boolean measured) {
+        StringBuilder line = new StringBuilder();
+        series.forEach((name, serie) -> {
+            Histogram histogram = serie.recorder.getIntervalHistogram(serie.recycled);
+            serie.recycled = histogram;
+            if (measured) {
+                serie.total.add(histogram);
+            } else {
+                serie.errors.reset();
+            }
+            line.append(String.format(" | %s %.0f/s p99 %.1fms", name, histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(99))));
+        });
+        return line.toString();
+    }
+
+    void report(PrintStream out, double seconds) {
+        out.printf("%n%-14s %10s %10s %8s %9s %9s %9s %9s %9s%n",
+                "série", "total", "por s", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        series.forEach((name, serie) -> {
+            Histogram total = serie.total;
+            out.printf("%-14s %10d %10.1f %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n", name, total.getTotalCount(),
+                    total.getTotalCount() / seconds, serie.errors.sum(),
+                    millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue()));
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Series {
+
+        private final Recorder recorder = new Recorder(MAX_NANOS, 3);
+        private final Histogram total = new Histogram(MAX_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private Histogram recycled;
+    }
+}
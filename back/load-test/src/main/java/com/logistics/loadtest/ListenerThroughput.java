@@ -0,0 +1,198 @@
+package com.logistics.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.logistics.notification_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Vazão do listener do notification-service contra o broker embutido: enche a fila com eventos no formato do
+ * order-service, liga o listener e mede até o último evento ser processado. Compara consumo em lote (yml) com
+ * uma mensagem por chamada e por ack (batch-size=1), com o mesmo prefetch, lanes e renderização.
+ * Uso: java -jar load-test/target/load-test.jar listener messages=100000 rounds=3 orders=1000 format=json
+ *      notification.spring.rabbitmq.listener.simple.prefetch=500   (sobrescreve o yml nos dois modos)
+ */
+final class ListenerThroughput {
+
+    private static final Map<String, Map<String, String>> MODES = Map.of(
+            "single", Map.of("spring.rabbitmq.listener.simple.batch-size", "1"),
+            "batch", Map.of());
+
+    private ListenerThroughput() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> notificationProperties = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            if (key.startsWith("notification.")) {
+                notificationProperties.put(key.substring("notification.".length()), value);
+            } else {
+                options.put(key, value);
+            }
+        }
+
+        int messages = Integer.parseInt(options.getOrDefault("messages", "100000"));
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "3"));
+        int orders = Integer.parseInt(options.getOrDefault("orders", "1000"));
+        String format = options.getOrDefault("format", "json");
+        List<String> modes = List.of(options.getOrDefault("modes", "single,batch").split(","));
+
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        System.out.println("Subindo broker...");
+        try (EmbeddedBroker broker = EmbeddedBroker.start()) {
+            CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
+            connectionFactory.setAddresses(broker.address());
+            connectionFactory.setUsername(EmbeddedBroker.USER);
+            connectionFactory.setPassword(EmbeddedBroker.PASSWORD);
+            try {
+                RabbitTemplate publisher = new RabbitTemplate(connectionFactory);
+                RabbitAdmin admin = new RabbitAdmin(connectionFactory);
+                // Mesma conversão da outbox do order-service: o listener decodifica o que iria pela rede
+                MessageConverter converter = new com.logistics.order_service.infra.messaging.RabbitMQConfig()
+                        .messageConverter(format);
+                Events events = new Events(converter, orders);
+
+                System.out.printf("%d eventos por rodada (%s), %d pedidos, %d rodadas por modo (a primeira é aquecimento)%n",
+                        messages, format, orders, rounds);
+                System.out.printf("%n%-8s %7s %12s %10s %12s%n", "modo", "rodada", "eventos/s", "chamadas", "eventos/chamada");
+                Map<String, Double> best = new HashMap<>();
+                for (String mode : modes) {
+                    Map<String, String> properties = new HashMap<>(notificationProperties);
+                    properties.putAll(MODES.get(mode));
+                    // Listener parado: a fila é enchida antes e a medição começa com ela cheia
+                    properties.put("spring.rabbitmq.listener.simple.auto-startup", "false");
+                    properties.put("spring.main.banner-mode", "off");
+                    try (ConfigurableApplicationContext notifications =
+                                 LocalStack.notificationService(broker, properties)) {
+                        RabbitListenerEndpointRegistry listeners = notifications.getBean(RabbitListenerEndpointRegistry.class);
+                        MeterRegistry meters = notifications.getBean(MeterRegistry.class);
+                        // Com o listener parado ninguém abre conexão e a fila do serviço não é declarada
+                        notifications.getBean(RabbitAdmin.class).initialize();
+                        for (int round = 1; round <= rounds; round++) {
+                            fill(publisher, admin, events, messages);
+                            Round result = drain(listeners, meters, messages);
+                            System.out.printf("%-8s %7s %12.0f %10d %12.1f%n", mode, round == 1 ? "*" : round,
+                                    result.perSecond(), result.calls(), (double) messages / result.calls());
+                            if (round > 1 || rounds == 1) {
+                                best.merge(mode, result.perSecond(), Math::max);
+                            }
+                        }
+                    }
+                }
+                System.out.printf("%n(* = aquecimento) melhor rodada:%n");
+                best.forEach((mode, perSecond) -> System.out.printf("%-8s %12.0f eventos/s%n", mode, perSecond));
+                if (best.containsKey("single") && best.containsKey("batch")) {
+                    System.out.printf("lote/individual: %.2fx%n", best.get("batch") / best.get("single"));
+                }
+            } finally {
+                connectionFactory.destroy();
+            }
+        }
+    }
+
+    private static void fill(RabbitTemplate publisher, RabbitAdmin admin, Events events, int messages)
+            throws InterruptedException {
+        publisher.invoke(operations -> {
+            for (int i = 0; i < messages; i++) {
+                operations.send(RabbitMQConfig.ORDER_EVENTS_QUEUE, events.next());
+            }
+            return null;
+        });
+        // Sem confirms: espera o broker ter enfileirado tudo antes de ligar o listener
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (queued(admin) < messages) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("A fila não chegou a " + messages + " mensagens: " + queued(admin));
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    // Termina quando o listener registrou o lag do último evento (notifications.event.lag, um por evento)
+    private static Round drain(RabbitListenerEndpointRegistry listeners, MeterRegistry meters, int messages)
+            throws InterruptedException {
+        long consumedBefore = meters.get("notifications.event.lag").timer().count();
+        long callsBefore = meters.get("notifications.batch").timer().count();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+
+        long started = System.nanoTime();
+        listeners.start();
+        while (meters.get("notifications.event.lag").timer().count() - consumedBefore < messages) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("O listener não processou os " + messages + " eventos a tempo");
+            }
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - started;
+        // stop() espera o lote em andamento terminar: a última chamada entra na conta desta rodada
+        listeners.stop();
+
+        return new Round(messages / (elapsed / 1e9), meters.get("notifications.batch").timer().count() - callsBefore);
+    }
+
+    private static long queued(RabbitAdmin admin) {
+        QueueInformation info = admin.getQueueInfo(RabbitMQConfig.ORDER_EVENTS_QUEUE);
+        return info != null ? info.getMessageCount() : 0;
+    }
+
+    private record Round(double perSecond, long calls) {
+    }
+
+    // Eventos como os da outbox: id de mensagem único (o listener descarta reentregas) e horário do commit
+    private static final class Events {
+
+        private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+        private final MessageConverter converter;
+        private final List<UUID> orders = new ArrayList<>();
+        private long sequence;
+
+        Events(MessageConverter converter, int orders) {
+            this.converter = converter;
+            for (int i = 0; i < orders; i++) {
+                this.orders.add(UUID.randomUUID());
+            }
+        }
+
+        Message next() {
+            long n = sequence++;
+            OrderResponseDTO event = new OrderResponseDTO(orders.get((int) (n % orders.size())), "cliente " + n,
+                    new BigDecimal("10.50"), STATUSES[(int) (n % STATUSES.length)], LocalDateTime.now());
+            MessageProperties properties = new MessageProperties();
+            properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+            properties.setMessageId("listener-" + n);
+            properties.setHeader("x-order-committed-at", System.currentTimeMillis());
+            return converter.toMessage(event, properties);
+        }
+    }
+}
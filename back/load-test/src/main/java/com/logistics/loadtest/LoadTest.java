@@ -0,0 +1,109 @@
+package com.logistics.loadtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Teste de carga reproduzível sem docker: sobe Postgres embutido, um broker AMQP em memória (Qpid) e os dois serviços
+ * no mesmo processo, e dispara criação, mudança de status e leitura em modelo aberto (taxa fixa, latência a partir
+ * do horário agendado), com N clientes SSE medindo a entrega ponta a ponta. Percentis via HdrHistogram.
+ * Uso: java -jar load-test/target/load-test.jar rate=300 seconds=60 warmup=15 sse=200 mix=create:30,patch:20,get:50
+ *      order.outbox.relay.interval=20ms notification.sse.queue-capacity=512   (sobrescreve o yml de cada serviço)
+ * Vazão só do listener, em lote x uma mensagem por vez: java -jar load-test/target/load-test.jar listener ...
+ * (ver ListenerThroughput)
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "listener".equals(args[0])) {
+            ListenerThroughput.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> orderProperties = new HashMap<>();
+        Map<String, String> notificationProperties = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = arg.substring(0, eq);
+            String value = arg.substring(eq + 1);
+            if (key.startsWith("order.")) {
+                orderProperties.put(key.substring("order.".length()), value);
+            } else if (key.startsWith("notification.")) {
+                notificationProperties.put(key.substring("notification.".length()), value);
+            } else {
+                options.put(key, value);
+            }
+        }
+
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "60"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int sseConnections = Integer.parseInt(options.getOrDefault("sse", "100"));
+        OrderTraffic.Mix mix = OrderTraffic.Mix.parse(options.getOrDefault("mix", "create:30,patch:20,get:50"));
+        boolean poisson = !"constant".equals(options.getOrDefault("arrivals", "poisson"));
+
+        // Postgres e Qpid logam a partida em INFO antes de o Spring configurar o logging
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        long booting = System.nanoTime();
+        System.out.println("Subindo Postgres, broker e serviços...");
+        try (LocalStack stack = LocalStack.start(orderProperties, notificationProperties);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .executor(clients)
+                     .build()) {
+            System.out.printf("Ambiente pronto em %.1fs: %s | %s%n",
+                    (System.nanoTime() - booting) / 1e9, stack.ordersUrl(), stack.notificationsUrl());
+
+            Latencies latencies = new Latencies(OrderTraffic.CREATE, OrderTraffic.PATCH, OrderTraffic.GET, SseListeners.SSE);
+            OrderTraffic traffic = new OrderTraffic(http, clients, stack.ordersUrl(), latencies);
+            SseListeners listeners = new SseListeners(http, stack.notificationsUrl(), traffic, latencies);
+            listeners.open(sseConnections, clients);
+
+            System.out.printf("Carga: %.0f req/s (%s) por %ds + %ds de aquecimento%n",
+                    rate, poisson ? "poisson" : "constante", seconds, warmup);
+            AtomicInteger elapsed = new AtomicInteger();
+            ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+            progress.scheduleAtFixedRate(() -> {
+                int second = elapsed.incrementAndGet();
+                boolean measured = second > warmup;
+                System.out.printf("%s%3ds em voo %4d%s%n", measured ? " " : "*", second, traffic.inFlight(),
+                        latencies.interval(1, measured));
+            }, 1, 1, TimeUnit.SECONDS);
+
+            traffic.run(rate, Duration.ofSeconds(warmup + seconds), mix, poisson);
+
+            // Espera as requisições em voo e as últimas entregas SSE entrarem no último intervalo
+            long drain = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (traffic.inFlight() > 0 && System.nanoTime() < drain) {
+                Thread.sleep(100);
+            }
+            Thread.sleep(2_000);
+            progress.shutdown();
+            progress.awaitTermination(5, TimeUnit.SECONDS);
+            latencies.interval(1, true);
+
+            System.out.printf("%n(* = aquecimento, fora do relatório) SSE conectadas ao fim: %d/%d (falhas: %d)%n",
+                    listeners.open(), sseConnections, listeners.failed());
+            latencies.report(System.out, seconds);
+            clients.shutdownNow();
+        }
+    }
+}
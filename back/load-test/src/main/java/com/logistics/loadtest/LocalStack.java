@@ -0,0 +1,127 @@
+package com.logistics.loadtest;
+
+import com.logistics.notification_service.NotificationServiceApplication;
+import com.logistics.order_service.OrderServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Postgres embutido, broker em memória e os dois serviços no mesmo processo, cada um com o próprio application.yml
+// e porta aleatória. Propriedades extras (ex.: outbox.relay.interval) sobrescrevem o yml como na linha de comando
+final class LocalStack implements AutoCloseable {
+
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedBroker broker;
+    private final ConfigurableApplicationContext orders;
+    private final ConfigurableApplicationContext notifications;
+
+    private LocalStack(EmbeddedPostgres postgres, EmbeddedBroker broker,
+            ConfigurableApplicationContext orders, ConfigurableApplicationContext notifications) {
+        this.postgres = postgres;
+        this.broker = broker;
+        this.orders = orders;
+        this.notifications = notifications;
+    }
+
+    static LocalStack start(Map<String, String> orderProperties, Map<String, String> notificationProperties)
+            throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        EmbeddedBroker broker = EmbeddedBroker.start();
+
+        // O notification-service declara a fila durável; sobe primeiro para não perder os primeiros eventos
+        ConfigurableApplicationContext notifications = notificationService(broker, notificationProperties);
+        ConfigurableApplicationContext orders = run(OrderServiceApplication.class, "order-service", shared(broker), Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "postgres"), orderProperties);
+
+        return new LocalStack(postgres, broker, orders, notifications);
+    }
+
+    // Só o notification-service, sem banco: também usado para medir o listener isolado (ListenerThroughput)
+    static ConfigurableApplicationContext notificationService(EmbeddedBroker broker, Map<String, String> overrides)
+            throws IOException {
+        // Com o order-service no classpath o notification-service veria JPA e Flyway: desliga para ele
+        return run(NotificationServiceApplication.class, "notification-service", shared(broker),
+                Map.of("spring.autoconfigure.exclude", String.join(",",
+                        "org.springframework.boot.jdbc.autoconfigure.DataSourceAutoConfiguration",
+                        "org.springframework.boot.hibernate.autoconfigure.HibernateJpaAutoConfiguration",
+                        "org.springframework.boot.flyway.autoconfigure.FlywayAutoConfiguration")),
+                overrides);
+    }
+
+    String ordersUrl() {
+        return "http://localhost:" + port(orders) + "/orders";
+    }
+
+    String notificationsUrl() {
+        return "http://localhost:" + port(notifications) + "/notifications/stream";
+    }
+
+    @Override
+    public void close() throws IOException {
+        orders.close();
+        notifications.close();
+        broker.close();
+        postgres.close();
+    }
+
+    private static List<String> shared(EmbeddedBroker broker) {
+        return List.of(
+                "--server.port=0",
+                "--spring.rabbitmq.addresses=" + broker.address(),
+                "--spring.rabbitmq.username=" + EmbeddedBroker.USER,
+                "--spring.rabbitmq.password=" + EmbeddedBroker.PASSWORD,
+                // Dois contextos no mesmo processo: cada um com o seu registry, sem o global compartilhado
+                "--management.metrics.use-global-registry=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static ConfigurableApplicationContext run(Class<?> application, String service, List<String> shared,
+            Map<String, String> infrastructure, Map<String, String> overrides) throws IOException {
+        List<String> args = new ArrayList<>(shared);
+        args.add("--spring.config.location=" + applicationYaml(service));
+        infrastructure.forEach((key, value) -> args.add("--" + key + "=" + value));
+        overrides.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(application)
+                .initializers(LocalStack::withoutRabbitOnlyQueueArguments)
+                .run(args.toArray(String[]::new));
+    }
+
+    // A AnonymousQueue do Spring AMQP pede x-queue-master-locator, dica de posicionamento só do RabbitMQ que o Qpid
+    // recusa na declaração; sem ela a fila funciona igual num broker de um nó
+    private static void withoutRabbitOnlyQueueArguments(ConfigurableApplicationContext context) {
+        context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof Queue queue) {
+                    queue.removeArgument("x-queue-master-locator");
+                }
+                return bean;
+            }
+        });
+    }
+
+    // Os dois jars trazem um application.yml na raiz do classpath: escolhe o do serviço pela URL
+    private static String applicationYaml(String service) throws IOException {
+        for (URL url : Collections.list(LocalStack.class.getClassLoader().getResources("application.yml"))) {
+            if (url.toExternalForm().contains(service)) {
+                return url.toExternalForm();
+            }
+        }
+        throw new IllegalStateException("application.yml do " + service + " não está no classpath");
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+}
@@ -0,0 +1,212 @@
+package com.logistics.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Chegadas em modelo aberto: cada requisição sai no horário agendado, esteja a anterior pronta ou não, e a latência
+// conta a partir desse horário. Fila no cliente, no Tomcat ou no pool aparece nos percentis em vez de derrubar a taxa
+final class OrderTraffic {
+
+    static final String CREATE = "create";
+    static final String PATCH = "patch";
+    static final String GET = "get";
+
+    // Caminho feliz de status: PENDING -> PROCESSED -> SHIPPED -> DELIVERED
+    private static final String[] NEXT_STATUS = {"PROCESSED", "SHIPPED", "DELIVERED"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-f-]{36})\"");
+    private static final int CREATED_SLOTS = 1 << 20;
+    private static final int KNOWN_IDS = 1 << 12;
+
+    private final HttpClient http;
+    private final Executor requests;
+    private final String ordersUrl;
+    private final Latencies latencies;
+
+    // Horário agendado de cada criação, indexado pela sequência embutida no nome do cliente
+    private final AtomicLongArray createdAt = new AtomicLongArray(CREATED_SLOTS);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicReferenceArray<String> known = new AtomicReferenceArray<>(KNOWN_IDS);
+    private final AtomicLong knownCount = new AtomicLong();
+    private final Queue<Advance> advanceable = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OrderTraffic(HttpClient http, Executor requests, String ordersUrl, Latencies latencies) {
+        this.http = http;
+        this.requests = requests;
+        this.ordersUrl = ordersUrl;
+        this.latencies = latencies;
+    }
+
+    // Bloqueia até agendar a última chegada; as requisições seguem no executor
+    void run(double ratePerSecond, Duration duration, Mix mix, boolean poisson) {
+        double meanGapNanos = 1e9 / ratePerSecond;
+        long next = System.nanoTime();
+        long end = next + duration.toNanos();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduled = next;
+            String operation = mix.pick(random.nextDouble());
+            requests.execute(() -> fire(operation, scheduled));
+            next += poisson ? (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos) : (long) meanGapNanos;
+        }
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // Horário agendado da criação com esta sequência (0 se já saiu da janela)
+    long createdAt(long sequence) {
+        return createdAt.get((int) (sequence & (CREATED_SLOTS - 1)));
+    }
+
+    // O nome só aceita letras: a sequência vai com um dígito por letra (0 = a ... 9 = j)
+    static String customerName(long sequence) {
+        StringBuilder name = new StringBuilder("Carga ");
+        for (char digit : Long.toString(sequence).toCharArray()) {
+            name.append((char) ('a' + digit - '0'));
+        }
+        return name.toString();
+    }
+
+    static long sequenceOf(String letters) {
+        long sequence = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            sequence = sequence * 10 + (letters.charAt(i) - 'a');
+        }
+        return sequence;
+    }
+
+    private void fire(String operation, long scheduled) {
+        inFlight.incrementAndGet();
+        try {
+            switch (operation) {
+                case CREATE -> create(scheduled);
+                case PATCH -> patch(scheduled);
+                default -> get(scheduled);
+            }
+        } catch (IOException e) {
+            latencies.error(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void create(long scheduled) throws IOException, InterruptedException {
+        long seq = sequence.getAndIncrement();
+        createdAt.set((int) (seq & (CREATED_SLOTS - 1)), scheduled);
+        String body = "{\"customerName\":\"" + customerName(seq) + "\",\"amount\":" + (10 + seq % 990) + ".90}";
+
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(ordersUrl))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (!completed(CREATE, scheduled, response.statusCode())) {
+            return;
+        }
+
+        Matcher matcher = ID.matcher(response.body());
+        if (matcher.find()) {
+            String id = matcher.group(1);
+            known.set((int) (knownCount.getAndIncrement() & (KNOWN_IDS - 1)), id);
+            advanceable.offer(new Advance(id, 0));
+        }
+    }
+
+    // Sem pedido para avançar (início da carga), vira uma leitura
+    private void patch(long scheduled) throws IOException, InterruptedException {
+        Advance advance = advanceable.poll();
+        if (advance == null) {
+            get(scheduled);
+            return;
+        }
+
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(ordersUrl + "/" + advance.id() + "/status"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                "{\"status\":\"" + NEXT_STATUS[advance.step()] + "\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (completed(PATCH, scheduled, response.statusCode()) && advance.step() + 1 < NEXT_STATUS.length) {
+            advanceable.offer(new Advance(advance.id(), advance.step() + 1));
+        }
+    }
+
+    // 80% por id (cache e leitura em lote), 20% primeira página
+    private void get(long scheduled) throws IOException, InterruptedException {
+        long count = knownCount.get();
+        String url = ordersUrl + "?size=50";
+        if (count > 0 && ThreadLocalRandom.current().nextInt(10) < 8) {
+            long slot = ThreadLocalRandom.current().nextLong(Math.min(count, KNOWN_IDS));
+            url = ordersUrl + "/" + known.get((int) slot);
+        }
+
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        completed(GET, scheduled, response.statusCode());
+    }
+
+    private boolean completed(String operation, long scheduled, int status) {
+        if (status / 100 != 2) {
+            latencies.error(operation);
+            return false;
+        }
+        latencies.record(operation, System.nanoTime() - scheduled);
+        return true;
+    }
+
+    private record Advance(String id, int step) {
+    }
+
+    // Proporção de cada operação, ex.: create:30,patch:20,get:50
+    record Mix(double create, double patch) {
+
+        static Mix parse(String spec) {
+            double create = 0;
+            double patch = 0;
+            double get = 0;
+            for (String part : spec.split(",")) {
+                String[] pair = part.split(":");
+                double weight = Double.parseDouble(pair[1]);
+                switch (pair[0].trim()) {
+                    case CREATE -> create = weight;
+                    case PATCH -> patch = weight;
+                    case GET -> get = weight;
+                    default -> throw new IllegalArgumentException("Operação desconhecida no mix: " + pair[0]);
+                }
+            }
+            double total = create + patch + get;
+            return new Mix(create / total, patch / total);
+        }
+
+        String pick(double sample) {
+            if (sample < create) {
+                return CREATE;
+            }
+            return sample < create + patch ? PATCH : GET;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.logistics.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// N conexões SSE sem filtro, como o painel do front: cada criação chega a todas e cada entrega vira uma amostra
+// de latência ponta a ponta (horário agendado do POST -> evento lido no cliente), passando por outbox, broker e fan-out
+final class SseListeners {
+
+    static final String SSE = "sse";
+
+    private static final Pattern CREATED = Pattern.compile("Olá Carga ([a-j]+)!");
+
+    private final HttpClient http;
+    private final String streamUrl;
+    private final OrderTraffic traffic;
+    private final Latencies latencies;
+    private final AtomicInteger open = new AtomicInteger();
+    private final LongAdder failed = new LongAdder();
+
+    SseListeners(HttpClient http, String streamUrl, OrderTraffic traffic, Latencies latencies) {
+        this.http = http;
+        this.streamUrl = streamUrl;
+        this.traffic = traffic;
+        this.latencies = latencies;
+    }
+
+    // O SseEmitter só manda os headers junto com o primeiro evento, então não dá para esperar a resposta: abre as
+    // conexões e dá um tempo para as inscrições chegarem ao servidor antes da carga
+    void open(int count, ExecutorService clients) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            clients.submit(this::listen);
+        }
+        Thread.sleep(Math.min(10_000, 1_000 + count * 5L));
+    }
+
+    int open() {
+        return open.get();
+    }
+
+    long failed() {
+        return failed.sum();
+    }
+
+    private void listen() {
+        try {
+            HttpResponse<InputStream> response = http.send(
+                    HttpRequest.newBuilder(URI.create(streamUrl)).header("Accept", "text/event-stream").build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                failed.increment();
+                return;
+            }
+            open.incrementAndGet();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("data:")) {
+                        delivered(line);
+                    }
+                }
+            } finally {
+                open.decrementAndGet();
+            }
+        } catch (IOException e) {
+            failed.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Só a notificação de criação carrega a sequência; as de mudança de status são apenas consumidas
+    private void delivered(String data) {
+        long now = System.nanoTime();
+        Matcher matcher = CREATED.matcher(data);
+        if (matcher.find()) {
+            long createdAt = traffic.createdAt(OrderTraffic.sequenceOf(matcher.group(1)));
+            if (createdAt != 0) {
+                latencies.record(SSE, now - createdAt);
+            }
+        }
+    }
+}
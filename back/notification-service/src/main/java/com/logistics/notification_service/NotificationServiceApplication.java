@@ -1,9 +1,12 @@
 package com.logistics.notification_service;
 
+import com.logistics.notification_service.config.NotificationServiceRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NotificationServiceRuntimeHints.class)
 public class NotificationServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,20 @@
+package com.logistics.notification_service.config;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+// O ObjectMapper dos eventos usa Visibility.ANY: na imagem nativa o Jackson precisa dos campos privados
+// e do construtor canônico do record, que o AOT do Spring não registra porque o tipo só aparece no listener
+public class NotificationServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(OrderEventDTO.class, MemberCategory.ACCESS_DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(OrderStatus.class, MemberCategory.ACCESS_PUBLIC_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -1,13 +1,20 @@
 package com.logistics.notification_service.controller;
 
 import com.logistics.notification_service.infra.messaging.SseService;
+import com.logistics.notification_service.infra.messaging.SseSubscription;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/notifications")
 @RequiredArgsConstructor
@@ -15,8 +22,37 @@ public class SseController {
 
     private final SseService sseService;
 
+    // Sem filtro recebe tudo; com orderId ou customer recebe só os eventos daquele pedido/cliente
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter stream() {
-        return sseService.addEmitter();
+    public SseEmitter stream(@RequestParam(required = false) UUID orderId,
+            @RequestParam(required = false) String customer,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        if (orderId != null && customer != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe apenas orderId ou customer");
+        }
+
+        SseSubscription subscription = SseSubscription.ALL;
+        if (orderId != null) {
+            subscription = SseSubscription.forOrder(orderId);
+        } else if (customer != null && !customer.isBlank()) {
+            subscription = SseSubscription.forCustomer(customer);
+        }
+
+        // O EventSource nativo manda o header; reconexões manuais do front mandam o parâmetro
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        return sseService.addEmitter(subscription, parseEventId(lastEventId));
+    }
+
+    private Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            // Id desconhecido: força o cliente a recarregar (resync)
+            return -1L;
+        }
     }
 }
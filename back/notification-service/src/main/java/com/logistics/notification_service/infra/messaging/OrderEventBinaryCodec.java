@@ -0,0 +1,127 @@
+package com.logistics.notification_service.infra.messaging;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/*
+ * Layout binário v1 do evento de pedido (big-endian):
+ * [versão:1][flags:1][id:16][status:1][createdAt: epochSecond 8 + nanos 4]
+ * [amount: scale 4 + tamanho 1 + unscaled N][customerName: tamanho 2 + UTF-8 N]
+ * Cada flag indica se o campo correspondente está presente; o status é o ordinal do enum. Os tamanhos são sem sinal;
+ * o do amount vai de 1 a 16 bytes, o suficiente para qualquer valor de numeric(38,2) (|unscaled| < 10^38 < 2^127).
+ * O order-service tem uma cópia deste codec e as duas precisam mudar juntas (nova versão).
+ */
+public final class OrderEventBinaryCodec {
+
+    public static final String CONTENT_TYPE = "application/vnd.logistics.order-event+binary";
+    public static final byte VERSION = 1;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_STATUS = 1 << 1;
+    private static final int HAS_CREATED_AT = 1 << 2;
+    private static final int HAS_AMOUNT = 1 << 3;
+    private static final int HAS_CUSTOMER_NAME = 1 << 4;
+
+    private static final int MAX_AMOUNT_BYTES = 16;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderEventBinaryCodec() {
+    }
+
+    public static byte[] encode(OrderEventDTO event) {
+        byte[] name = event.customerName() != null ? event.customerName().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] unscaled = event.amount() != null ? event.amount().unscaledValue().toByteArray() : null;
+        if (name != null && name.length > 0xFFFF) {
+            throw new MessageConversionException("Nome do cliente grande demais para o formato binário");
+        }
+        if (unscaled != null && unscaled.length > MAX_AMOUNT_BYTES) {
+            throw new MessageConversionException("Valor do pedido fora do limite de numeric(38,2): " + event.amount());
+        }
+
+        int flags = (event.id() != null ? HAS_ID : 0)
+                | (event.status() != null ? HAS_STATUS : 0)
+                | (event.createdAt() != null ? HAS_CREATED_AT : 0)
+                | (unscaled != null ? HAS_AMOUNT : 0)
+                | (name != null ? HAS_CUSTOMER_NAME : 0);
+
+        int size = 2 + 16 + 1 + 12
+                + (unscaled != null ? 5 + unscaled.length : 0)
+                + (name != null ? 2 + name.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        buffer.put(VERSION).put((byte) flags);
+        if (event.id() != null) {
+            buffer.putLong(event.id().getMostSignificantBits()).putLong(event.id().getLeastSignificantBits());
+        } else {
+            buffer.putLong(0).putLong(0);
+        }
+        buffer.put(event.status() != null ? (byte) event.status().ordinal() : 0);
+        if (event.createdAt() != null) {
+            buffer.putLong(event.createdAt().toEpochSecond(ZoneOffset.UTC)).putInt(event.createdAt().getNano());
+        } else {
+            buffer.putLong(0).putInt(0);
+        }
+        if (unscaled != null) {
+            buffer.putInt(event.amount().scale()).put((byte) unscaled.length).put(unscaled);
+        }
+        if (name != null) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        return buffer.array();
+    }
+
+    public static OrderEventDTO decode(byte[] body) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new MessageConversionException("Versão de evento binário não suportada: " + version);
+            }
+            int flags = buffer.get();
+
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            OrderStatus status = STATUSES[buffer.get()];
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+
+            BigDecimal amount = null;
+            if ((flags & HAS_AMOUNT) != 0) {
+                int scale = buffer.getInt();
+                int length = Byte.toUnsignedInt(buffer.get());
+                if (length == 0 || length > MAX_AMOUNT_BYTES) {
+                    throw new MessageConversionException("Evento binário malformado: amount com " + length + " bytes");
+                }
+                byte[] unscaled = new byte[length];
+                buffer.get(unscaled);
+                amount = new BigDecimal(new BigInteger(unscaled), scale);
+            }
+
+            String customerName = null;
+            if ((flags & HAS_CUSTOMER_NAME) != 0) {
+                byte[] name = new byte[Short.toUnsignedInt(buffer.getShort())];
+                buffer.get(name);
+                customerName = new String(name, StandardCharsets.UTF_8);
+            }
+
+            return new OrderEventDTO(
+                    (flags & HAS_ID) != 0 ? id : null,
+                    customerName,
+                    amount,
+                    (flags & HAS_STATUS) != 0 ? status : null,
+                    (flags & HAS_CREATED_AT) != 0 ? createdAt : null);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new MessageConversionException("Evento binário malformado", e);
+        }
+    }
+}
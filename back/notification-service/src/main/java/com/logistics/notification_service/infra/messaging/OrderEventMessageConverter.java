@@ -0,0 +1,28 @@
+package com.logistics.notification_service.infra.messaging;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+// Lê eventos binários ou JSON conforme o content-type da mensagem; JSON continua sendo o fallback
+public class OrderEventMessageConverter implements MessageConverter {
+
+    private final MessageConverter json;
+
+    public OrderEventMessageConverter(MessageConverter json) {
+        this.json = json;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return json.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (OrderEventBinaryCodec.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return OrderEventBinaryCodec.decode(message.getBody());
+        }
+        return json.fromMessage(message);
+    }
+}
@@ -1,11 +1,16 @@
 package com.logistics.notification_service.infra.messaging;
 
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -24,7 +29,14 @@ public class RabbitMQConfig {
         objectMapper.setVisibility(com.fasterxml.jackson.annotation.PropertyAccessor.ALL,
                 com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.ANY);
 
-        return new Jackson2JsonMessageConverter(objectMapper);
+        return new OrderEventMessageConverter(new Jackson2JsonMessageConverter(objectMapper));
+    }
+
+    // Tempo máximo esperando completar um lote antes de entregar o que já chegou
+    @Bean
+    public ContainerCustomizer<SimpleMessageListenerContainer> batchReceiveTimeoutCustomizer(
+            @Value("${order-events.listener.batch-receive-timeout:200ms}") Duration batchReceiveTimeout) {
+        return container -> container.setBatchReceiveTimeout(batchReceiveTimeout.toMillis());
     }
 
 }
@@ -0,0 +1,12 @@
+package com.logistics.notification_service.infra.messaging;
+
+// Evento já renderizado, com id sequencial e as chaves de roteamento usadas no replay filtrado
+// committedAt: commit do pedido no order-service em epoch millis (0 quando desconhecido)
+record SseEvent(long id, String data, String orderKey, String customerKey, long committedAt) {
+
+    boolean matches(SseSubscription subscription) {
+        return subscription.isGlobal()
+                || subscription.key().equals(orderKey)
+                || subscription.key().equals(customerKey);
+    }
+}
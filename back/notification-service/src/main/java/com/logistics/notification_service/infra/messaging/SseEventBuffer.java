@@ -0,0 +1,50 @@
+package com.logistics.notification_service.infra.messaging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Ring buffer de tamanho fixo com os últimos eventos; slots pré-alocados, sem cópia nem remoção
+class SseEventBuffer {
+
+    private final AtomicReferenceArray<SseEvent> slots;
+    private final int capacity;
+    private final long firstId;
+
+    SseEventBuffer(int capacity, long firstId) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.capacity = capacity;
+        this.firstId = firstId;
+    }
+
+    void add(SseEvent event) {
+        slots.set(index(event.id()), event);
+    }
+
+    // Eventos após lastEventId que a assinatura deve receber, ou null se lastEventId já saiu da janela
+    List<SseEvent> since(long lastEventId, long latestId, SseSubscription subscription) {
+        if (lastEventId < firstId - 1 || lastEventId > latestId || latestId - lastEventId > capacity) {
+            return null;
+        }
+
+        List<SseEvent> events = new ArrayList<>();
+        for (long id = lastEventId + 1; id <= latestId; id++) {
+            SseEvent event = slots.get(index(id));
+            if (event == null || event.id() < id) {
+                // Id já reservado mas ainda não gravado: chegará pela entrega ao vivo
+                break;
+            }
+            if (event.id() > id) {
+                return null;
+            }
+            if (event.matches(subscription)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    private int index(long id) {
+        return (int) Math.floorMod(id, (long) capacity);
+    }
+}
@@ -0,0 +1,84 @@
+package com.logistics.notification_service.infra.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Métricas agregadas do fan-out SSE (sem tag por assinante para não explodir a cardinalidade)
+class SseMetrics {
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final Counter dropped;
+    private final Counter disconnected;
+    private final Timer sendLatency;
+    private final Timer deliveryLatency;
+    private final Counter replayHits;
+    private final Counter replayMisses;
+
+    SseMetrics(MeterRegistry meterRegistry) {
+        meterRegistry.gauge("sse.queue.depth", queueDepth);
+        this.dropped = Counter.builder("sse.dropped")
+                .description("Mensagens descartadas por assinantes lentos ou por shards atrasados (fila cheia), por assinante")
+                .register(meterRegistry);
+        this.disconnected = Counter.builder("sse.disconnected")
+                .description("Conexões removidas após falha de envio")
+                .register(meterRegistry);
+        this.sendLatency = Timer.builder("sse.send")
+                .description("Tempo de escrita de um evento em uma conexão SSE")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.deliveryLatency = Timer.builder("sse.delivery.latency")
+                .description("Do commit do pedido no order-service até a escrita do evento ao vivo na conexão SSE")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.replayHits = Counter.builder("sse.replay")
+                .description("Reconexões com Last-Event-ID atendidas pelo buffer")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.replayMisses = Counter.builder("sse.replay")
+                .description("Reconexões com Last-Event-ID fora da janela do buffer (cliente precisa recarregar)")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    void enqueued() {
+        queueDepth.incrementAndGet();
+    }
+
+    void dequeued(int count) {
+        queueDepth.addAndGet(-count);
+    }
+
+    void dropped() {
+        dropped.increment();
+        queueDepth.decrementAndGet();
+    }
+
+    // Descartado no backlog do shard, antes de entrar na fila dos assinantes (não mexe na profundidade)
+    void dropped(int subscribers) {
+        dropped.increment(subscribers);
+    }
+
+    void disconnected() {
+        disconnected.increment();
+    }
+
+    void replay(boolean hit) {
+        (hit ? replayHits : replayMisses).increment();
+    }
+
+    void recordSend(long nanos) {
+        sendLatency.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Relógios de máquinas diferentes: diferença negativa (clock skew) é descartada
+    void recordDelivery(long committedAt) {
+        long millis = System.currentTimeMillis() - committedAt;
+        if (committedAt > 0 && millis >= 0) {
+            deliveryLatency.record(millis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -1,41 +1,191 @@
 package com.logistics.notification_service.infra.messaging;
 
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @Slf4j
 public class SseService {
 
-    // Lista de conexões ativas
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    // Conexões ativas divididas em shards: conectar/desconectar não copia a lista inteira
+    private final SseShard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
 
-    public SseEmitter addEmitter() {
-        SseEmitter emitter = new SseEmitter(600_000L); // Time-out de 10 minutos
+    // Índice chave (pedido/cliente) -> conexões interessadas: o roteamento custa O(interessados)
+    private final Map<String, Set<SseSubscriber>> subscriptions = new ConcurrentHashMap<>();
 
-        // Remove da lista quando a conexão termina ou dá erro
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-        emitter.onError((ex) -> emitters.remove(emitter));
+    private final int queueCapacity;
+    private final Duration emitterTimeout;
+    private final SseMetrics metrics;
+    private final Timer publishTimer;
 
-        emitters.add(emitter);
+    // Ids crescentes a partir do horário de subida: ids de outro processo caem fora da janela
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1_000);
+    private final SseEventBuffer buffer;
+    // Publicações de threads diferentes (filas do listener) entram nas filas dos assinantes na ordem dos ids:
+    // o assinante descarta id menor que o último enviado, então fora de ordem seria perda
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // Envio em virtual threads: um navegador lento só ocupa a própria thread
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseService(MeterRegistry meterRegistry,
+            @Value("${sse.shards:16}") int shardCount,
+            @Value("${sse.subscriber-queue-capacity:256}") int queueCapacity,
+            @Value("${sse.shard-backlog:10000}") int shardBacklog,
+            @Value("${sse.replay-buffer-size:4096}") int replayBufferSize,
+            @Value("${sse.emitter-timeout:10m}") Duration emitterTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.queueCapacity = queueCapacity;
+        this.emitterTimeout = emitterTimeout;
+        this.metrics = new SseMetrics(meterRegistry);
+        this.publishTimer = Timer.builder("sse.publish")
+                .description("Custo para a thread do listener de rotear um evento (buffer, shards e assinaturas por chave)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.buffer = new SseEventBuffer(replayBufferSize, sequence.get() + 1);
+        this.shards = new SseShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new SseShard(i, shardBacklog, virtualThreads, metrics);
+        }
+        meterRegistry.gauge("sse.subscribers", this, SseService::subscriberCount);
+        meterRegistry.gauge("sse.subscriptions.keys", subscriptions, Map::size);
+    }
+
+    public SseEmitter addEmitter(SseSubscription subscription, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        register(emitter, subscription, lastEventId);
         return emitter;
     }
 
-    public void broadcast(String message) {
-        for (SseEmitter emitter : emitters) {
-            try {
-                // Envia a string para o navegador
-                emitter.send(SseEmitter.event().data(message));
-            } catch (IOException e) {
-                emitters.remove(emitter);
-                log.warn("Erro ao enviar mensagem SSE, removendo conexão.");
+    SseSubscriber register(SseEmitter emitter, SseSubscription subscription, Long lastEventId) {
+        SseSubscriber subscriber = new SseSubscriber(emitter, queueCapacity, senders, metrics);
+
+        // Remove do registro quando a conexão termina ou dá erro
+        if (subscription.isGlobal()) {
+            SseShard shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+            subscriber.onClose(() -> shard.remove(subscriber));
+            shard.add(subscriber);
+        } else {
+            subscriber.onClose(() -> unsubscribe(subscription.key(), subscriber));
+            subscriptions.compute(subscription.key(), (key, subscribers) -> {
+                Set<SseSubscriber> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError((ex) -> subscriber.close());
+
+        // Já registrado: o que for publicado a partir daqui fica na fila enquanto o replay é montado
+        long latestId = sequence.get();
+        if (lastEventId == null) {
+            subscriber.start(latestId, List.of());
+        } else {
+            List<SseEvent> missed = buffer.since(lastEventId, latestId, subscription);
+            metrics.replay(missed != null);
+            // Fora da janela o cliente recarrega tudo (resync); só interessa o que vier depois de agora
+            subscriber.start(missed != null ? lastEventId : latestId, missed);
+        }
+        return subscriber;
+    }
+
+    public void publish(OrderEventDTO event, String message) {
+        publish(event, message, 0);
+    }
+
+    // Entrega a quem assina tudo e a quem assina este pedido ou este cliente
+    public void publish(OrderEventDTO event, String message, long committedAt) {
+        Timer.Sample sample = Timer.start();
+        String orderKey = SseSubscription.forOrder(event.id()).key();
+        String customerKey = event.customerName() != null
+                ? SseSubscription.forCustomer(event.customerName()).key()
+                : null;
+        publishLock.lock();
+        try {
+            SseEvent sseEvent = append(message, orderKey, customerKey, committedAt);
+
+            fanOut(sseEvent);
+            deliver(orderKey, sseEvent);
+            if (customerKey != null) {
+                deliver(customerKey, sseEvent);
             }
+        } finally {
+            publishLock.unlock();
+        }
+        sample.stop(publishTimer);
+    }
+
+    public void broadcast(String message) {
+        publishLock.lock();
+        try {
+            fanOut(append(message, null, null, 0));
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    public int subscriberCount() {
+        int keyed = subscriptions.values().stream().mapToInt(Set::size).sum();
+        return Arrays.stream(shards).mapToInt(SseShard::size).sum() + keyed;
+    }
+
+    long dispatchedToShards() {
+        return Arrays.stream(shards).mapToLong(SseShard::dispatched).sum();
+    }
+
+    private SseEvent append(String message, String orderKey, String customerKey, long committedAt) {
+        SseEvent event = new SseEvent(sequence.incrementAndGet(), message, orderKey, customerKey, committedAt);
+        buffer.add(event);
+        return event;
+    }
+
+    // Custo para a thread do listener é O(shards), independente do número de conexões
+    private void fanOut(SseEvent event) {
+        for (SseShard shard : shards) {
+            shard.publish(event);
+        }
+    }
+
+    private void deliver(String key, SseEvent event) {
+        Set<SseSubscriber> subscribers = subscriptions.get(key);
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> subscriber.enqueue(event));
+        }
+    }
+
+    private void unsubscribe(String key, SseSubscriber subscriber) {
+        subscriptions.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (SseShard shard : shards) {
+            shard.shutdown();
         }
+        senders.shutdown();
     }
 }
@@ -0,0 +1,78 @@
+package com.logistics.notification_service.infra.messaging;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fatia do registro de assinantes; cada shard distribui as mensagens na sua própria thread
+class SseShard {
+
+    private final Set<SseSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor dispatcher;
+    private final SseMetrics metrics;
+    private final LongAdder dispatched = new LongAdder();
+
+    SseShard(int index, int backlog, boolean virtualThreads, SseMetrics metrics) {
+        this.metrics = metrics;
+        // Continua uma thread só por shard (preserva a ordem); em modo virtual ela não ocupa uma thread do SO
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("sse-shard-" + index).factory()
+                : Thread.ofPlatform().daemon().name("sse-shard-" + index).factory();
+        // Fila limitada: se o shard ficar muito para trás, descarta o evento mais antigo ainda não distribuído.
+        // Quem publica nunca faz o fan-out, e os ids seguem crescentes na fila (nada é descartado em silêncio
+        // pelo assinante por chegar fora de ordem)
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(backlog),
+                threadFactory,
+                dropOldest());
+    }
+
+    void add(SseSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void remove(SseSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    int size() {
+        return subscribers.size();
+    }
+
+    // Tarefas entregues ao dispatcher: uma por evento, qualquer que seja o número de assinantes
+    long dispatched() {
+        return dispatched.sum();
+    }
+
+    void publish(SseEvent event) {
+        dispatched.increment();
+        dispatcher.execute(() -> {
+            for (SseSubscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+            }
+        });
+    }
+
+    void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    // Cada assinante do shard perde o evento descartado: conta como um descarte para cada um
+    private RejectedExecutionHandler dropOldest() {
+        return (task, executor) -> {
+            while (!executor.isShutdown()) {
+                if (executor.getQueue().poll() != null) {
+                    metrics.dropped(subscribers.size());
+                }
+                if (executor.getQueue().offer(task)) {
+                    return;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+package com.logistics.notification_service.infra.messaging;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Uma conexão SSE com fila própria e limitada; no máximo uma tarefa de envio por vez preserva a ordem
+class SseSubscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEvent> queue;
+    private final Queue<SseEvent> replay = new ConcurrentLinkedQueue<>();
+    private final Executor senders;
+    private final SseMetrics metrics;
+
+    // Nasce pausado: eventos ao vivo acumulam na fila até o replay ser definido em start()
+    private final AtomicBoolean draining = new AtomicBoolean(true);
+    private volatile Runnable onClose = () -> { };
+    private volatile boolean closed;
+    private volatile boolean resync;
+    private long lastSentId;
+
+    SseSubscriber(SseEmitter emitter, int queueCapacity, Executor senders, SseMetrics metrics) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.senders = senders;
+        this.metrics = metrics;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    void onClose(Runnable onClose) {
+        this.onClose = onClose;
+    }
+
+    // Libera o envio: primeiro o replay (ou o aviso de resync), depois o que chegou ao vivo
+    void start(long lastEventId, List<SseEvent> missed) {
+        this.lastSentId = lastEventId;
+        if (missed == null) {
+            resync = true;
+        } else {
+            replay.addAll(missed);
+        }
+        draining.set(false);
+        scheduleDrain();
+    }
+
+    // Nunca bloqueia: com a fila cheia descarta a mensagem mais antiga e mantém as mais recentes
+    void enqueue(SseEvent event) {
+        if (closed) {
+            return;
+        }
+
+        while (!queue.offer(event)) {
+            if (queue.poll() != null) {
+                metrics.dropped();
+            }
+        }
+        metrics.enqueued();
+        scheduleDrain();
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        metrics.dequeued(queue.size());
+        queue.clear();
+        replay.clear();
+        onClose.run();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            senders.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            try {
+                if (resync) {
+                    resync = false;
+                    emitter.send(SseEmitter.event().name("resync").data(""));
+                }
+
+                SseEvent event;
+                while ((event = replay.poll()) != null) {
+                    send(event, false);
+                }
+                while ((event = queue.poll()) != null) {
+                    metrics.dequeued(1);
+                    send(event, true);
+                }
+            } catch (IOException | IllegalStateException e) {
+                metrics.disconnected();
+                close();
+                return;
+            }
+            draining.set(false);
+            // Uma mensagem pode ter chegado entre o último poll e a liberação do flag
+        } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void send(SseEvent event, boolean live) throws IOException {
+        // Um evento pode vir no replay e também ao vivo; o id garante que sai uma vez só
+        if (event.id() <= lastSentId) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        emitter.send(SseEmitter.event().id(Long.toString(event.id())).data(event.data()));
+        metrics.recordSend(System.nanoTime() - start);
+        // Replay chega atrasado por definição: só o ao vivo entra na latência ponta a ponta
+        if (live) {
+            metrics.recordDelivery(event.committedAt());
+        }
+        lastSentId = event.id();
+    }
+}
@@ -0,0 +1,22 @@
+package com.logistics.notification_service.infra.messaging;
+
+import java.util.Locale;
+import java.util.UUID;
+
+// Filtro de uma conexão SSE; key nula significa receber todos os eventos (dashboard)
+public record SseSubscription(String key) {
+
+    public static final SseSubscription ALL = new SseSubscription(null);
+
+    public static SseSubscription forOrder(UUID orderId) {
+        return new SseSubscription("order:" + orderId);
+    }
+
+    public static SseSubscription forCustomer(String customerName) {
+        return new SseSubscription("customer:" + customerName.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isGlobal() {
+        return key == null;
+    }
+}
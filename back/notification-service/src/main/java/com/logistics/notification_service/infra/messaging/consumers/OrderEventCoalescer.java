@@ -0,0 +1,142 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Janela de coalescência por pedido: o primeiro evento abre a janela e só o status mais avançado (ordinal)
+// recebido até ela fechar é renderizado e publicado. Rajadas PENDING -> PROCESSED -> SHIPPED viram uma notificação.
+// Desligada com window = 0. O evento já foi confirmado ao broker quando entra na janela: numa queda, o que estiver
+// aguardando se perde (o próximo status do pedido corrige). Acima de max-pending pedidos publica direto
+@Component
+@Slf4j
+class OrderEventCoalescer {
+
+    private final Duration window;
+    private final int maxPending;
+    private final Map<UUID, Window> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter suppressed;
+    private final Counter overflow;
+
+    OrderEventCoalescer(MeterRegistry meterRegistry,
+            @Value("${order-events.coalescing.window:0ms}") Duration window,
+            @Value("${order-events.coalescing.max-pending:10000}") int maxPending) {
+        this.window = window;
+        this.maxPending = maxPending;
+        if (window.isZero() || window.isNegative()) {
+            this.flusher = null;
+        } else {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1,
+                    Thread.ofPlatform().daemon().name("order-events-coalescer").factory());
+            executor.setRemoveOnCancelPolicy(true);
+            this.flusher = executor;
+        }
+
+        this.suppressed = Counter.builder("notifications.coalesced")
+                .description("Notificações suprimidas por um status mais recente do mesmo pedido dentro da janela")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("notifications.coalescing.overflow")
+                .description("Eventos publicados sem coalescer porque a janela já tinha max-pending pedidos")
+                .register(meterRegistry);
+        Gauge.builder("notifications.coalescing.pending", pending, Map::size)
+                .description("Pedidos com notificação aguardando o fim da janela")
+                .register(meterRegistry);
+    }
+
+    // Sem janela (desligada, cheia ou evento sem id) publica na thread de quem chamou, e uma falha volta para o
+    // lote (retry). Dentro da janela a publicação sai na thread do coalescer
+    void submit(Notification notification, Consumer<Notification> publisher) {
+        UUID id = notification.event().id();
+        if (flusher == null || id == null) {
+            publisher.accept(notification);
+            return;
+        }
+
+        Window fresh = new Window(notification, publisher);
+        Window current = pending.compute(id, (key, open) -> {
+            if (open != null) {
+                open.merge(notification);
+                suppressed.increment();
+                return open;
+            }
+            return pending.size() < maxPending ? fresh : null;
+        });
+
+        if (current == null) {
+            overflow.increment();
+            publisher.accept(notification);
+        } else if (current == fresh) {
+            flusher.schedule(() -> flush(id), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    int pending() {
+        return pending.size();
+    }
+
+    // Publica o que estiver aguardando antes de parar, em vez de descartar eventos já confirmados
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdownNow();
+        for (UUID id : List.copyOf(pending.keySet())) {
+            flush(id);
+        }
+    }
+
+    private void flush(UUID id) {
+        Window closed = pending.remove(id);
+        if (closed == null) {
+            return;
+        }
+        try {
+            closed.publisher.accept(closed.latest);
+        } catch (RuntimeException e) {
+            log.warn("Falha ao publicar a notificação coalescida do pedido {}", id, e);
+        }
+    }
+
+    record Notification(OrderEventDTO event, long committedAt, String correlationId) {
+    }
+
+    // Alterado só dentro do compute do mapa (um por pedido) e lido depois do remove
+    private static final class Window {
+
+        private final Consumer<Notification> publisher;
+        private Notification latest;
+
+        Window(Notification first, Consumer<Notification> publisher) {
+            this.latest = first;
+            this.publisher = publisher;
+        }
+
+        // Status fora de ordem (ordinal menor) não volta o pedido para trás
+        void merge(Notification next) {
+            if (rank(next) >= rank(latest)) {
+                latest = next;
+            }
+        }
+
+        private static int rank(Notification notification) {
+            return notification.event().status() == null ? -1 : notification.event().status().ordinal();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Eventos distribuídos por hash do id do pedido em N filas de uma thread só:
+// pedidos diferentes em paralelo, eventos do mesmo pedido sempre na ordem de chegada
+@Component
+class OrderEventLanes {
+
+    private final Lane[] lanes;
+
+    OrderEventLanes(MeterRegistry meterRegistry,
+            @Value("${order-events.listener.lanes:8}") int laneCount,
+            @Value("${order-events.listener.lane-capacity:64}") int laneCapacity,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, laneCapacity, virtualThreads, meterRegistry);
+        }
+    }
+
+    // Bloqueia até o lote inteiro ser processado: o ack (e o retry) do lote continuam valendo para todos os eventos.
+    // Se um evento falha, os seguintes da mesma fila não rodam neste lote, senão passariam na frente dele
+    <T> void dispatch(List<T> items, Function<T, UUID> key, Consumer<T> handler) {
+        Batch batch = new Batch(lanes.length, items.size());
+        for (T item : items) {
+            int lane = laneOf(key.apply(item));
+            lanes[lane].submit(() -> batch.run(lane, () -> handler.accept(item)));
+        }
+        batch.await();
+    }
+
+    int laneOf(UUID id) {
+        return id == null ? 0 : Math.floorMod(id.hashCode(), lanes.length);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+    }
+
+    private static final class Lane {
+
+        private final ThreadPoolExecutor executor;
+        private final Timer latency;
+
+        Lane(int index, int capacity, boolean virtualThreads, MeterRegistry meterRegistry) {
+            ThreadFactory threadFactory = virtualThreads
+                    ? Thread.ofVirtual().name("order-events-lane-" + index).factory()
+                    : Thread.ofPlatform().daemon().name("order-events-lane-" + index).factory();
+            // Fila cheia bloqueia a thread do listener, que para de consumir: o backlog fica no broker (prefetch)
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacity),
+                    threadFactory,
+                    (task, executor) -> {
+                        if (executor.isShutdown()) {
+                            throw new RejectedExecutionException("Fila de eventos encerrada");
+                        }
+                        try {
+                            executor.getQueue().put(task);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException(e);
+                        }
+                    });
+
+            String lane = Integer.toString(index);
+            Gauge.builder("notifications.lane.depth", executor, e -> e.getQueue().size())
+                    .description("Eventos aguardando na fila")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+            this.latency = Timer.builder("notifications.lane.latency")
+                    .description("Da entrada do evento na fila até o fim do processamento")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+        }
+
+        void submit(Runnable task) {
+            long enqueuedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        }
+    }
+
+    private static final class Batch {
+
+        private final AtomicReferenceArray<RuntimeException> failures;
+        private final CountDownLatch pending;
+
+        Batch(int lanes, int items) {
+            this.failures = new AtomicReferenceArray<>(lanes);
+            this.pending = new CountDownLatch(items);
+        }
+
+        void run(int lane, Runnable task) {
+            try {
+                if (failures.get(lane) == null) {
+                    task.run();
+                }
+            } catch (RuntimeException e) {
+                failures.set(lane, e);
+            } finally {
+                pending.countDown();
+            }
+        }
+
+        void await() {
+            try {
+                pending.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrompido aguardando o lote de eventos", e);
+            }
+
+            RuntimeException first = null;
+            for (int i = 0; i < failures.length(); i++) {
+                RuntimeException failure = failures.get(i);
+                if (failure == null) {
+                    continue;
+                }
+                if (first == null) {
+                    first = failure;
+                } else {
+                    first.addSuppressed(failure);
+                }
+            }
+            if (first != null) {
+                throw first;
+            }
+        }
+    }
+}
@@ -3,40 +3,122 @@ package com.logistics.notification_service.infra.messaging.consumers;
 import com.logistics.notification_service.domain.dtos.OrderEventDTO;
 import com.logistics.notification_service.infra.messaging.RabbitMQConfig;
 import com.logistics.notification_service.infra.messaging.SseService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class OrderEventListener {
 
+    // Mesmos nomes usados pelo order-service ao publicar a outbox
+    static final String COMMITTED_AT_HEADER = "x-order-committed-at";
+    static final String CORRELATION_ID_MDC_KEY = "correlationId";
+
     private final SseService sseService;
+    private final OrderNotificationRenderer renderer;
+    private final OrderEventLanes lanes;
+    private final OrderEventCoalescer coalescer;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+    private final Counter duplicates;
+    private final ProcessedEvents processed;
+
+    public OrderEventListener(SseService sseService, OrderNotificationRenderer renderer, OrderEventLanes lanes,
+            OrderEventCoalescer coalescer, MeterRegistry meterRegistry,
+            @Value("${order-events.listener.dedup-window:100000}") int dedupWindow) {
+        this.sseService = sseService;
+        this.renderer = renderer;
+        this.lanes = lanes;
+        this.coalescer = coalescer;
+        this.processed = new ProcessedEvents(dedupWindow);
+        this.duplicates = Counter.builder("notifications.duplicates")
+                .description("Eventos reentregues já publicados, descartados sem nova notificação")
+                .register(meterRegistry);
+        meterRegistry.gauge("notifications.dedup.window", processed, ProcessedEvents::size);
+        this.batchTimer = Timer.builder("notifications.batch")
+                .description("Processamento de um lote do listener (renderização e publicação SSE)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("notifications.event.lag")
+                .description("Do commit do pedido no order-service até o consumo do evento")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
+    // Consome em lotes (spring.rabbitmq.listener.simple.consumer-batch-enabled); um lote = um ack.
+    // O lote é processado em paralelo pelas filas por pedido (OrderEventLanes)
     @RabbitListener(queues = RabbitMQConfig.ORDER_EVENTS_QUEUE)
-    public void onOrderEvent(OrderEventDTO event) {
-        log.info("🔔 Processando atualização de status para o pedido: {}", event.id());
-
-        String mensagem = switch (event.status()) {
-            case PENDING -> "Olá %s! Recebemos seu pedido. Ele está sendo processado".formatted(event.customerName());
-            case PROCESSED -> "%s, seu pedido já foi processado".formatted(event.customerName());
-            case SHIPPED ->
-                "Boa notícia, %s! Seu pedido foi enviado e está em rota de entrega.".formatted(event.customerName());
-            case DELIVERED -> "Pedido entregue! Aproveite sua compra.";
-            case CANCELED -> "Atenção: Seu pedido foi cancelado. Verifique os detalhes no app.";
-            case COMPLETED ->
-                "Seu pedido foi finalizado. Obrigado por confiar em nossa loja, %s!".formatted(event.customerName());
-            default -> "O status do seu pedido mudou para: " + event.status();
-        };
+    public void onOrderEvents(List<Message<OrderEventDTO>> messages) {
+        Timer.Sample sample = Timer.start();
+        log.debug("🔔 Processando lote de {} atualizações de status", messages.size());
+
+        lanes.dispatch(messages, message -> message.getPayload().id(), this::process);
+        sample.stop(batchTimer);
+    }
+
+    private void process(Message<OrderEventDTO> message) {
+        // Reentregas do mesmo evento caem na mesma fila (mesmo pedido): verificar e marcar não competem
+        String eventId = message.getHeaders().get(AmqpHeaders.MESSAGE_ID, String.class);
+        if (eventId != null && processed.contains(eventId)) {
+            duplicates.increment();
+            return;
+        }
+
+        String correlationId = message.getHeaders().get(AmqpHeaders.CORRELATION_ID, String.class);
+        Long committedAt = message.getHeaders().get(COMMITTED_AT_HEADER, Long.class);
+        long committed = committedAt != null ? committedAt : 0;
+        if (committed > 0) {
+            // Lag negativo só aparece com relógios dessincronizados; não entra na métrica
+            long lag = System.currentTimeMillis() - committed;
+            if (lag >= 0) {
+                lagTimer.record(lag, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        // Sem janela de coalescência publica aqui mesmo; com ela, o mais recente do pedido sai quando a janela fecha
+        coalescer.submit(new OrderEventCoalescer.Notification(message.getPayload(), committed, correlationId),
+                this::publish);
+        // Só marca depois de publicar (ou de entrar na janela): se o lote falhar no meio, o retry reenvia o que faltou
+        if (eventId != null) {
+            processed.add(eventId);
+        }
+    }
+
+    private void publish(OrderEventCoalescer.Notification notification) {
+        if (notification.correlationId() != null) {
+            MDC.put(CORRELATION_ID_MDC_KEY, notification.correlationId());
+        }
+        try {
+            onOrderEvent(notification.event(), notification.committedAt());
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC_KEY);
+        }
+    }
+
+    void onOrderEvent(OrderEventDTO event) {
+        onOrderEvent(event, 0);
+    }
+
+    void onOrderEvent(OrderEventDTO event, long committedAt) {
+        String mensagem = renderer.render(event);
 
         enviarNotificacao(mensagem);
 
-        sseService.broadcast(mensagem);
+        sseService.publish(event, mensagem, committedAt);
     }
 
     private void enviarNotificacao(String mensagem) {
-        log.info("📧 ENVIANDO NOTIFICAÇÃO: \"{}\"", mensagem);
+        log.debug("📧 ENVIANDO NOTIFICAÇÃO: \"{}\"", mensagem);
     }
 }
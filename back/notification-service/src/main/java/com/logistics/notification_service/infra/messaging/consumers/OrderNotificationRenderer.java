@@ -0,0 +1,52 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Templates por status quebrados em prefixo/sufixo uma única vez: renderizar é só concatenar
+@Component
+public class OrderNotificationRenderer {
+
+    private static final String PLACEHOLDER = "%s";
+
+    private final Map<OrderStatus, Template> templates = new EnumMap<>(OrderStatus.class);
+
+    public OrderNotificationRenderer() {
+        templates.put(OrderStatus.PENDING, Template.compile("Olá %s! Recebemos seu pedido. Ele está sendo processado"));
+        templates.put(OrderStatus.PROCESSED, Template.compile("%s, seu pedido já foi processado"));
+        templates.put(OrderStatus.SHIPPED,
+                Template.compile("Boa notícia, %s! Seu pedido foi enviado e está em rota de entrega."));
+        templates.put(OrderStatus.DELIVERED, Template.compile("Pedido entregue! Aproveite sua compra."));
+        templates.put(OrderStatus.CANCELED,
+                Template.compile("Atenção: Seu pedido foi cancelado. Verifique os detalhes no app."));
+        templates.put(OrderStatus.COMPLETED,
+                Template.compile("Seu pedido foi finalizado. Obrigado por confiar em nossa loja, %s!"));
+    }
+
+    public String render(OrderEventDTO event) {
+        Template template = templates.get(event.status());
+        if (template == null) {
+            return "O status do seu pedido mudou para: " + event.status();
+        }
+        return template.render(event.customerName());
+    }
+
+    private record Template(String prefix, String suffix, boolean hasName) {
+
+        static Template compile(String pattern) {
+            int index = pattern.indexOf(PLACEHOLDER);
+            if (index < 0) {
+                return new Template(pattern, "", false);
+            }
+            return new Template(pattern.substring(0, index), pattern.substring(index + PLACEHOLDER.length()), true);
+        }
+
+        String render(String customerName) {
+            return hasName ? prefix + customerName + suffix : prefix;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ids (messageId da outbox) dos últimos eventos já publicados; o mais antigo sai quando a janela enche.
+// Protege das reentregas (retry do listener, requeue do broker), que chegam logo depois do original
+class ProcessedEvents {
+
+    private final Map<String, Boolean> ids;
+
+    ProcessedEvents(int capacity) {
+        this.ids = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized boolean contains(String id) {
+        return ids.containsKey(id);
+    }
+
+    synchronized void add(String id) {
+        ids.put(id, Boolean.TRUE);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
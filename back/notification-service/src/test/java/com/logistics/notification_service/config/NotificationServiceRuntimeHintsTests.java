@@ -0,0 +1,22 @@
+package com.logistics.notification_service.config;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationServiceRuntimeHintsTests {
+
+    @Test
+    void eventRecordIsReadableByTheAnyVisibilityMapper() throws NoSuchFieldException {
+        RuntimeHints hints = new RuntimeHints();
+        new NotificationServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onFieldAccess(OrderEventDTO.class.getDeclaredField("status")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructorInvocation(OrderEventDTO.class.getDeclaredConstructors()[0]))
+                .accepts(hints);
+    }
+}
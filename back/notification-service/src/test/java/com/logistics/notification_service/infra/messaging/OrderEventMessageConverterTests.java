@@ -0,0 +1,109 @@
+package com.logistics.notification_service.infra.messaging;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventMessageConverterTests {
+
+    // Posição do tamanho do amount: versão, flags, id, status, createdAt e scale vêm antes
+    private static final int AMOUNT_LENGTH_OFFSET = 2 + 16 + 1 + 12 + 4;
+
+    private final MessageConverter converter = new RabbitMQConfig().messageConverter();
+    private final OrderEventDTO event = new OrderEventDTO(UUID.randomUUID(), "João Araújo",
+            new BigDecimal("1234.56"), OrderStatus.SHIPPED, LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_789));
+
+    @Test
+    void jsonFromTheOrderServiceIsReadIntoTheEvent() {
+        // Mesmo formato do order-service: datas ISO-8601 e o status pelo nome
+        String json = """
+                {"id":"%s","customerName":"João Araújo","amount":1234.56,"status":"SHIPPED",
+                 "createdAt":"2026-03-01T10:15:30.123456789"}
+                """.formatted(event.id());
+
+        assertThat(converter.fromMessage(json(json.getBytes(StandardCharsets.UTF_8)))).isEqualTo(event);
+    }
+
+    @Test
+    void binaryIsChosenByContentType() {
+        assertThat(converter.fromMessage(binary(OrderEventBinaryCodec.encode(event)))).isEqualTo(event);
+
+        OrderEventDTO partial = new OrderEventDTO(event.id(), null, null, OrderStatus.PENDING, null);
+        assertThat(converter.fromMessage(binary(OrderEventBinaryCodec.encode(partial)))).isEqualTo(partial);
+    }
+
+    @Test
+    void unknownBinaryVersionIsRejected() {
+        byte[] body = OrderEventBinaryCodec.encode(event);
+        body[0] = 2;
+
+        assertThatThrownBy(() -> converter.fromMessage(binary(body)))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("2");
+    }
+
+    @Test
+    void truncatedPayloadsAreMalformed() {
+        byte[] body = OrderEventBinaryCodec.encode(event);
+        for (int length = 0; length < body.length; length++) {
+            byte[] truncated = Arrays.copyOf(body, length);
+            assertThatThrownBy(() -> converter.fromMessage(binary(truncated)))
+                    .isInstanceOf(MessageConversionException.class);
+        }
+
+        byte[] json = "{\"id\":\"%s\",\"status\":\"SHI".formatted(event.id()).getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> converter.fromMessage(json(json))).isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void corruptAmountLengthIsMalformedNotAnUnexpectedError() {
+        byte[] body = OrderEventBinaryCodec.encode(event);
+
+        // 0xFF lido como byte com sinal viraria -1 (NegativeArraySizeException); 0 não é um BigInteger válido
+        for (byte length : new byte[]{(byte) 0xFF, (byte) 0x80, 17, 0}) {
+            body[AMOUNT_LENGTH_OFFSET] = length;
+            assertThatThrownBy(() -> converter.fromMessage(binary(body)))
+                    .isInstanceOf(MessageConversionException.class)
+                    .hasMessageContaining("malformado");
+        }
+    }
+
+    @Test
+    void amountsUpToTheNumeric38Limit() {
+        OrderEventDTO largest = new OrderEventDTO(event.id(), "Maria",
+                new BigDecimal("-999999999999999999999999999999999999.99"), OrderStatus.PENDING, event.createdAt());
+        assertThat(OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(largest))).isEqualTo(largest);
+
+        OrderEventDTO beyond = new OrderEventDTO(event.id(), "Maria",
+                new BigDecimal(BigInteger.TWO.pow(128), 2), OrderStatus.PENDING, event.createdAt());
+        assertThatThrownBy(() -> OrderEventBinaryCodec.encode(beyond)).isInstanceOf(MessageConversionException.class);
+    }
+
+    private static Message binary(byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(OrderEventBinaryCodec.CONTENT_TYPE);
+        return new Message(body, properties);
+    }
+
+    // O listener informa o tipo do parâmetro; sem o header __TypeId__ é assim que o JSON acha o record
+    private static Message json(byte[] body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setInferredArgumentType(OrderEventDTO.class);
+        return new Message(body, properties);
+    }
+}
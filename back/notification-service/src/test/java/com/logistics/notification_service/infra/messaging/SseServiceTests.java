@@ -0,0 +1,294 @@
+package com.logistics.notification_service.infra.messaging;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SseServiceTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SseService sseService = new SseService(meterRegistry, 4, 8, 10_000, 16, Duration.ofMinutes(10), false);
+
+    @AfterEach
+    void tearDown() {
+        sseService.shutdown();
+    }
+
+    @Test
+    void slowSubscriberDoesNotStallListenerNorOtherSubscribers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        sseService.register(new BlockedEmitter(release), SseSubscription.ALL, null);
+        CollectingEmitter fast = new CollectingEmitter("msg-999");
+        sseService.register(fast, SseSubscription.ALL, null);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 1_000; i++) {
+                sseService.broadcast("msg-" + i);
+            }
+        });
+
+        assertThat(fast.received.await(5, TimeUnit.SECONDS)).isTrue();
+        // Sob rajada o assinante rápido também pode perder as mais antigas, mas recebe em ordem e sempre a mais recente
+        assertThat(fast.messages).endsWith("msg-999")
+                .isSortedAccordingTo((a, b) -> Integer.compare(sequence(a), sequence(b)));
+
+        // Fila de 8 + a mensagem presa no envio: o resto do assinante lento foi descartado
+        assertThat(meterRegistry.get("sse.dropped").counter().count()).isGreaterThanOrEqualTo(1_000 - 9);
+        release.countDown();
+    }
+
+    @Test
+    void listenerCostDoesNotGrowWithSubscribers() {
+        for (int i = 0; i < 10; i++) {
+            sseService.register(new CollectingEmitter(null), SseSubscription.ALL, null);
+        }
+        broadcast(sseService, 1_000);
+        long fewSubscribers = sseService.dispatchedToShards();
+
+        SseService crowded = new SseService(new SimpleMeterRegistry(), 4, 8, 10_000, 16, Duration.ofMinutes(10), false);
+        try {
+            for (int i = 0; i < 10_000; i++) {
+                crowded.register(new CollectingEmitter(null), SseSubscription.ALL, null);
+            }
+            broadcast(crowded, 1_000);
+
+            // 1000x mais conexões e o mesmo trabalho para a thread do listener: uma tarefa por shard e por evento
+            assertThat(fewSubscribers).isEqualTo(4 * 1_000);
+            assertThat(crowded.dispatchedToShards()).isEqualTo(fewSubscribers);
+        } finally {
+            crowded.shutdown();
+        }
+    }
+
+    @Test
+    void laggingShardDropsOldestEventsInsteadOfRunningFanOutOnPublisher() throws InterruptedException {
+        SseShard shard = new SseShard(0, 2, false, new SseMetrics(meterRegistry));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(release);
+        shard.add(subscriber);
+        try {
+            shard.publish(sseEvent(1));
+            assertThat(subscriber.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Shard preso no evento 1 com backlog de 2: os eventos 2 e 3 são os mais antigos na fila e saem
+            for (long id = 2; id <= 5; id++) {
+                shard.publish(sseEvent(id));
+            }
+            release.countDown();
+
+            assertThat(subscriber.received.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(subscriber.ids).containsExactly(1L, 4L, 5L);
+            assertThat(subscriber.threads).allMatch(name -> name.equals("sse-shard-0"));
+            assertThat(meterRegistry.get("sse.dropped").counter().count()).isEqualTo(2);
+        } finally {
+            shard.shutdown();
+        }
+    }
+
+    @Test
+    void keyedSubscribersOnlyReceiveTheirOrderOrCustomer() throws InterruptedException {
+        UUID orderA = UUID.randomUUID();
+        UUID orderB = UUID.randomUUID();
+        CollectingEmitter all = new CollectingEmitter("msg-2");
+        CollectingEmitter followsA = new CollectingEmitter("msg-0");
+        CollectingEmitter followsMaria = new CollectingEmitter("msg-1");
+        sseService.register(all, SseSubscription.ALL, null);
+        sseService.register(followsA, SseSubscription.forOrder(orderA), null);
+        sseService.register(followsMaria, SseSubscription.forCustomer(" Maria "), null);
+
+        sseService.publish(event(orderA, "João"), "msg-0");
+        sseService.publish(event(orderB, "maria"), "msg-1");
+        sseService.publish(event(UUID.randomUUID(), "Ana"), "msg-2");
+
+        assertThat(all.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(followsA.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(followsMaria.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(all.messages).containsExactly("msg-0", "msg-1", "msg-2");
+        assertThat(followsA.messages).containsExactly("msg-0");
+        assertThat(followsMaria.messages).containsExactly("msg-1");
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsFromBuffer() throws InterruptedException {
+        CollectingEmitter first = new CollectingEmitter("msg-1");
+        sseService.register(first, SseSubscription.ALL, null);
+        sseService.broadcast("msg-0");
+        sseService.broadcast("msg-1");
+        assertThat(first.received.await(5, TimeUnit.SECONDS)).isTrue();
+        long lastSeen = first.lastEventId;
+
+        // Desconectado enquanto msg-2 e msg-3 foram publicadas
+        sseService.broadcast("msg-2");
+        sseService.broadcast("msg-3");
+
+        CollectingEmitter reconnected = new CollectingEmitter("msg-3");
+        sseService.register(reconnected, SseSubscription.ALL, lastSeen);
+
+        assertThat(reconnected.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(reconnected.messages).containsExactly("msg-2", "msg-3");
+        assertThat(meterRegistry.get("sse.replay").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectOutsideBufferWindowAsksClientToResync() throws InterruptedException {
+        for (int i = 0; i < 40; i++) {
+            sseService.broadcast("msg-" + i);
+        }
+
+        CollectingEmitter reconnected = new CollectingEmitter("msg-40");
+        sseService.register(reconnected, SseSubscription.ALL, 1L);
+        sseService.broadcast("msg-40");
+
+        assertThat(reconnected.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(reconnected.resync).isTrue();
+        assertThat(reconnected.messages).containsExactly("msg-40");
+        assertThat(meterRegistry.get("sse.replay").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyLiveEventsRecordEndToEndDeliveryLatency() throws InterruptedException {
+        // Assinante de outro pedido: só serve para descobrir o id atual e não recebe os eventos medidos
+        UUID other = UUID.randomUUID();
+        CollectingEmitter first = new CollectingEmitter("msg-other");
+        sseService.register(first, SseSubscription.forOrder(other), null);
+        sseService.publish(event(other, "Bia"), "msg-other");
+        assertThat(first.received.await(5, TimeUnit.SECONDS)).isTrue();
+        long lastSeen = first.lastEventId;
+
+        sseService.publish(event(UUID.randomUUID(), "Ana"), "msg-0", System.currentTimeMillis() - 50);
+
+        CollectingEmitter live = new CollectingEmitter("msg-1");
+        sseService.register(live, SseSubscription.ALL, lastSeen);
+        sseService.publish(event(UUID.randomUUID(), "Ana"), "msg-1", System.currentTimeMillis() - 50);
+
+        assertThat(live.received.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(live.messages).containsExactly("msg-0", "msg-1");
+        // msg-0 veio do replay; só msg-1 conta, com pelo menos os 50ms desde o "commit"
+        var latency = meterRegistry.get("sse.delivery.latency").timer();
+        assertThat(latency.count()).isEqualTo(1);
+        assertThat(latency.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        assertThat(meterRegistry.get("sse.publish").timer().count()).isEqualTo(3);
+    }
+
+    private static OrderEventDTO event(UUID id, String customerName) {
+        return new OrderEventDTO(id, customerName, BigDecimal.TEN, OrderStatus.PENDING, LocalDateTime.now());
+    }
+
+    private static SseEvent sseEvent(long id) {
+        return new SseEvent(id, "msg-" + id, null, null, 0);
+    }
+
+    private static void broadcast(SseService service, int messages) {
+        for (int i = 0; i < messages; i++) {
+            service.broadcast("msg-" + i);
+        }
+    }
+
+    private static int sequence(String message) {
+        return Integer.parseInt(message.substring("msg-".length()));
+    }
+
+    private static class CollectingEmitter extends SseEmitter {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final String last;
+        private volatile long lastEventId;
+        private volatile boolean resync;
+
+        CollectingEmitter(String last) {
+            this.last = last;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            List<Object> parts = builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .toList();
+            String header = parts.getFirst().toString();
+            if (header.startsWith("event:resync")) {
+                resync = true;
+                return;
+            }
+            if (header.startsWith("id:")) {
+                lastEventId = Long.parseLong(header.substring(3, header.indexOf('\n')));
+            }
+            parts.stream()
+                    .filter(String.class::isInstance)
+                    .map(String.class::cast)
+                    .filter(data -> data.startsWith("msg-"))
+                    .forEach(data -> {
+                        messages.add(data);
+                        if (data.equals(last)) {
+                            received.countDown();
+                        }
+                    });
+        }
+    }
+
+    private static class BlockedEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+
+        BlockedEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Registra quem entregou cada evento; o primeiro fica preso até o teste liberar
+    private static class RecordingSubscriber extends SseSubscriber {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch received = new CountDownLatch(1);
+        private final List<Long> ids = new CopyOnWriteArrayList<>();
+        private final List<String> threads = new CopyOnWriteArrayList<>();
+
+        RecordingSubscriber(CountDownLatch release) {
+            super(new SseEmitter(), 8, Runnable::run, new SseMetrics(new SimpleMeterRegistry()));
+            this.release = release;
+        }
+
+        @Override
+        void enqueue(SseEvent event) {
+            ids.add(event.id());
+            threads.add(Thread.currentThread().getName());
+            if (event.id() == 1) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (event.id() == 5) {
+                received.countDown();
+            }
+        }
+    }
+}
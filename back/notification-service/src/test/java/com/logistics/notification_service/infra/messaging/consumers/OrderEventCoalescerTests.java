@@ -0,0 +1,101 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import com.logistics.notification_service.infra.messaging.consumers.OrderEventCoalescer.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventCoalescerTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Notification> published = new CopyOnWriteArrayList<>();
+
+    @Test
+    void onlyTheMostAdvancedStatusOfEachOrderIsPublishedWhenTheWindowCloses() throws Exception {
+        OrderEventCoalescer coalescer = new OrderEventCoalescer(meterRegistry, Duration.ofMillis(50), 100);
+        CountDownLatch flushed = new CountDownLatch(2);
+        UUID burst = UUID.randomUUID();
+        UUID single = UUID.randomUUID();
+
+        for (OrderStatus status : List.of(OrderStatus.PENDING, OrderStatus.PROCESSED, OrderStatus.SHIPPED)) {
+            coalescer.submit(notification(burst, status), publishing(flushed));
+        }
+        coalescer.submit(notification(single, OrderStatus.PENDING), publishing(flushed));
+        assertThat(published).isEmpty();
+
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(published).extracting(n -> n.event().id() + ":" + n.event().status())
+                .containsExactlyInAnyOrder(burst + ":SHIPPED", single + ":PENDING");
+        assertThat(meterRegistry.get("notifications.coalesced").counter().count()).isEqualTo(2);
+        assertThat(coalescer.pending()).isZero();
+        coalescer.shutdown();
+    }
+
+    @Test
+    void anOlderStatusArrivingLateDoesNotMoveTheOrderBack() throws Exception {
+        OrderEventCoalescer coalescer = new OrderEventCoalescer(meterRegistry, Duration.ofMillis(50), 100);
+        CountDownLatch flushed = new CountDownLatch(1);
+        UUID order = UUID.randomUUID();
+
+        coalescer.submit(notification(order, OrderStatus.SHIPPED), publishing(flushed));
+        coalescer.submit(notification(order, OrderStatus.PROCESSED), publishing(flushed));
+
+        assertThat(flushed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(published).singleElement().extracting(n -> n.event().status()).isEqualTo(OrderStatus.SHIPPED);
+        coalescer.shutdown();
+    }
+
+    @Test
+    void withoutAWindowEveryEventIsPublishedRightAway() {
+        OrderEventCoalescer coalescer = new OrderEventCoalescer(meterRegistry, Duration.ZERO, 100);
+        UUID order = UUID.randomUUID();
+
+        coalescer.submit(notification(order, OrderStatus.PENDING), published::add);
+        coalescer.submit(notification(order, OrderStatus.PROCESSED), published::add);
+
+        assertThat(published).hasSize(2);
+        assertThat(meterRegistry.get("notifications.coalesced").counter().count()).isZero();
+    }
+
+    @Test
+    void aFullWindowPublishesNewOrdersDirectlyAndShutdownFlushesWhatIsPending() {
+        OrderEventCoalescer coalescer = new OrderEventCoalescer(meterRegistry, Duration.ofMinutes(1), 1);
+        UUID waiting = UUID.randomUUID();
+        UUID overflow = UUID.randomUUID();
+
+        coalescer.submit(notification(waiting, OrderStatus.PENDING), published::add);
+        coalescer.submit(notification(overflow, OrderStatus.PENDING), published::add);
+
+        assertThat(published).extracting(n -> n.event().id()).containsExactly(overflow);
+        assertThat(meterRegistry.get("notifications.coalescing.overflow").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("notifications.coalescing.pending").gauge().value()).isEqualTo(1);
+
+        coalescer.shutdown();
+
+        assertThat(published).extracting(n -> n.event().id()).containsExactly(overflow, waiting);
+    }
+
+    private Consumer<Notification> publishing(CountDownLatch flushed) {
+        return notification -> {
+            published.add(notification);
+            flushed.countDown();
+        };
+    }
+
+    private static Notification notification(UUID order, OrderStatus status) {
+        return new Notification(new OrderEventDTO(order, "Maria", BigDecimal.ONE, status, LocalDateTime.now()), 0, null);
+    }
+}
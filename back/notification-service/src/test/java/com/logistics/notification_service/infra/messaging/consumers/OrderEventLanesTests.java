@@ -0,0 +1,110 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventLanesTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderEventLanes lanes = new OrderEventLanes(meterRegistry, 4, 8, false);
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void keepsOrderPerOrderIdWhileRunningOrdersInParallel() {
+        List<UUID> orders = IntStream.range(0, 16).mapToObj(i -> UUID.randomUUID()).toList();
+        List<Event> events = new ArrayList<>();
+        for (int step = 0; step < 50; step++) {
+            for (UUID order : orders) {
+                events.add(new Event(order, step));
+            }
+        }
+        Map<UUID, List<Integer>> seen = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        lanes.dispatch(events, Event::orderId, event -> {
+            threads.add(Thread.currentThread().getName());
+            seen.computeIfAbsent(event.orderId(), id -> new CopyOnWriteArrayList<>()).add(event.step());
+        });
+
+        assertThat(seen).hasSize(16).allSatisfy((order, steps) ->
+                assertThat(steps).containsExactlyElementsOf(IntStream.range(0, 50).boxed().toList()));
+        assertThat(threads).hasSizeGreaterThan(1);
+        assertThat(meterRegistry.get("notifications.lane.latency").timers().stream().mapToLong(Timer::count).sum())
+                .isEqualTo(events.size());
+    }
+
+    @Test
+    void failureSkipsLaterEventsOfTheSameLaneButNotOtherLanes() {
+        UUID failing = UUID.randomUUID();
+        UUID other = otherLaneThan(failing);
+        List<Event> processed = new CopyOnWriteArrayList<>();
+        List<Event> events = List.of(new Event(failing, 0), new Event(other, 0), new Event(failing, 1), new Event(other, 1));
+
+        assertThatThrownBy(() -> lanes.dispatch(events, Event::orderId, event -> {
+            if (event.orderId().equals(failing) && event.step() == 0) {
+                throw new IllegalStateException("falha");
+            }
+            processed.add(event);
+        })).isInstanceOf(IllegalStateException.class);
+
+        // O passo 1 do pedido que falhou não pode passar na frente do passo 0 (fica para o retry)
+        assertThat(processed).containsExactly(new Event(other, 0), new Event(other, 1));
+    }
+
+    @Test
+    void fullLaneBlocksTheDispatchingThread() throws InterruptedException {
+        UUID order = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        // 1 em execução + 8 na fila; o décimo evento tem que esperar
+        List<Event> events = IntStream.range(0, 10).mapToObj(i -> new Event(order, i)).toList();
+        CountDownLatch dispatched = new CountDownLatch(1);
+
+        Thread listener = Thread.ofPlatform().start(() -> {
+            lanes.dispatch(events, Event::orderId, event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            dispatched.countDown();
+        });
+
+        assertThat(dispatched.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(meterRegistry.get("notifications.lane.depth").tag("lane", Integer.toString(lanes.laneOf(order)))
+                .gauge().value()).isEqualTo(8);
+        release.countDown();
+        assertThat(dispatched.await(5, TimeUnit.SECONDS)).isTrue();
+        listener.join();
+    }
+
+    private UUID otherLaneThan(UUID order) {
+        UUID other;
+        do {
+            other = UUID.randomUUID();
+        } while (lanes.laneOf(other) == lanes.laneOf(order));
+        return other;
+    }
+
+    private record Event(UUID orderId, int step) { }
+}
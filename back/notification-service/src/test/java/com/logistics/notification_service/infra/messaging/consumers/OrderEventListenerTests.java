@@ -0,0 +1,76 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import com.logistics.notification_service.infra.messaging.SseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OrderEventListenerTests {
+
+    private final SseService sseService = mock(SseService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderEventLanes lanes = new OrderEventLanes(meterRegistry, 4, 8, false);
+    private final OrderEventListener listener = new OrderEventListener(sseService, new OrderNotificationRenderer(),
+            lanes, new OrderEventCoalescer(meterRegistry, Duration.ZERO, 0), meterRegistry, 100);
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void redeliveredEventsAreNotBroadcastAgain() {
+        Message<OrderEventDTO> first = message("1");
+        Message<OrderEventDTO> second = message("2");
+
+        listener.onOrderEvents(List.of(first, second));
+        // Reentrega do lote inteiro (retry) com um evento novo no fim
+        listener.onOrderEvents(List.of(first, second, message("3")));
+
+        verify(sseService, times(3)).publish(any(), anyString(), anyLong());
+        assertThat(meterRegistry.get("notifications.duplicates").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void retryAfterPartialFailureOnlyPublishesWhatWasMissing() {
+        Message<OrderEventDTO> first = message("1");
+        Message<OrderEventDTO> second = message("2");
+        AtomicInteger secondAttempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0).equals(second.getPayload()) && secondAttempts.getAndIncrement() == 0) {
+                throw new IllegalStateException("falha no meio do lote");
+            }
+            return null;
+        }).when(sseService).publish(any(), anyString(), anyLong());
+
+        assertThatThrownBy(() -> listener.onOrderEvents(List.of(first, second)))
+                .isInstanceOf(IllegalStateException.class);
+        listener.onOrderEvents(List.of(first, second));
+
+        verify(sseService, times(1)).publish(eq(first.getPayload()), anyString(), anyLong());
+        verify(sseService, times(2)).publish(eq(second.getPayload()), anyString(), anyLong());
+    }
+
+    private static Message<OrderEventDTO> message(String messageId) {
+        OrderEventDTO event = new OrderEventDTO(UUID.randomUUID(), "Maria", BigDecimal.ONE, OrderStatus.PENDING,
+                LocalDateTime.now());
+        return MessageBuilder.withPayload(event).setHeader(AmqpHeaders.MESSAGE_ID, messageId).build();
+    }
+}
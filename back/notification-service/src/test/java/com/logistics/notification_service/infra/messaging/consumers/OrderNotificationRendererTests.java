@@ -0,0 +1,34 @@
+package com.logistics.notification_service.infra.messaging.consumers;
+
+import com.logistics.notification_service.domain.dtos.OrderEventDTO;
+import com.logistics.notification_service.domain.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderNotificationRendererTests {
+
+    private final OrderNotificationRenderer renderer = new OrderNotificationRenderer();
+
+    @Test
+    void rendersSameTextsAsFormattedTemplates() {
+        assertThat(render(OrderStatus.PENDING))
+                .isEqualTo("Olá %s! Recebemos seu pedido. Ele está sendo processado".formatted("Maria"));
+        assertThat(render(OrderStatus.PROCESSED)).isEqualTo("%s, seu pedido já foi processado".formatted("Maria"));
+        assertThat(render(OrderStatus.SHIPPED))
+                .isEqualTo("Boa notícia, %s! Seu pedido foi enviado e está em rota de entrega.".formatted("Maria"));
+        assertThat(render(OrderStatus.DELIVERED)).isEqualTo("Pedido entregue! Aproveite sua compra.");
+        assertThat(render(OrderStatus.CANCELED))
+                .isEqualTo("Atenção: Seu pedido foi cancelado. Verifique os detalhes no app.");
+        assertThat(render(OrderStatus.COMPLETED))
+                .isEqualTo("Seu pedido foi finalizado. Obrigado por confiar em nossa loja, %s!".formatted("Maria"));
+    }
+
+    private String render(OrderStatus status) {
+        return renderer.render(new OrderEventDTO(UUID.randomUUID(), "Maria", BigDecimal.ONE, status, LocalDateTime.now()));
+    }
+}
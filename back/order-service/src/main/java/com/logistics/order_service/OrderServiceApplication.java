@@ -1,9 +1,14 @@
 package com.logistics.order_service;
 
+import com.logistics.order_service.config.OrderServiceRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(OrderServiceRuntimeHints.class)
+@EnableScheduling
 public class OrderServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,31 @@
+package com.logistics.order_service.config;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.ArchivedOrderRow;
+import com.logistics.order_service.repository.IdempotentOrder;
+import com.logistics.order_service.repository.OrderStatusTransition;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+// Reflexão que o AOT do Spring não enxerga sozinho e a imagem nativa precisa declarar:
+// - o ObjectMapper dos eventos usa Visibility.ANY, então o Jackson lê e escreve os campos privados do record
+// - os "select new" do JPQL instanciam os DTOs pelo construtor via reflexão do Hibernate
+// - as projeções das consultas nativas chamam métodos default (toResponse) pelo proxy
+public class OrderServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection()
+                .registerType(OrderResponseDTO.class, MemberCategory.ACCESS_DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(OrderStatus.class, MemberCategory.ACCESS_PUBLIC_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                .registerType(OrderStatusStatsDTO.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        for (Class<?> projection : new Class<?>[] {OrderStatusTransition.class, IdempotentOrder.class, ArchivedOrderRow.class}) {
+            hints.reflection().registerType(projection, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.logistics.order_service.controller;
 
+import com.logistics.order_service.domain.dto.request.BulkUpdateOrderStatusDTO;
 import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
 import com.logistics.order_service.domain.dto.request.UpdateOrderDTO;
+import com.logistics.order_service.domain.dto.response.BulkCreateOrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.BulkUpdateOrderStatusResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderPageDTO;
 import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatsDTO;
 import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.idempotency.IdempotencyKeyStore;
 import com.logistics.order_service.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,35 +30,91 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final JsonMapper jsonMapper;
 
+    // Com Idempotency-Key, repetições (ex.: retry após timeout) devolvem o pedido original sem nova escrita
     @PostMapping
-    public ResponseEntity<OrderResponseDTO> create(@Valid @RequestBody CreateOrderDTO dto) {
-        OrderResponseDTO response = orderService.create(dto);
+    public ResponseEntity<OrderResponseDTO> create(
+            @RequestHeader(value = IdempotencyKeyStore.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateOrderDTO dto) {
+        OrderResponseDTO response = idempotencyKey == null
+                ? orderService.create(dto)
+                : orderService.findCreated(idempotencyKey, dto)
+                        .orElseGet(() -> orderService.create(dto, idempotencyKey));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateOrderResponseDTO> createAll(@RequestBody List<CreateOrderDTO> dtos) {
+        BulkCreateOrderResponseDTO response = orderService.createAll(dtos);
+        HttpStatus status = response.rejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    // archived=true inclui pedidos já movidos para o arquivo (consulta a mais, só quando pedida)
     @GetMapping
-    public ResponseEntity<List<OrderResponseDTO>> findAll() {
-        List<OrderResponseDTO> response = orderService.findAll();
+    public ResponseEntity<OrderPageDTO> findAll(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        OrderPageDTO response = orderService.findAll(cursor, size, archived);
         return ResponseEntity.ok().body(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(ndjson(null));
+    }
+
+    // Servido pelos contadores em memória, sem consulta à base
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStatsDTO> stats() {
+        return ResponseEntity.ok().body(orderService.stats());
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponseDTO> findById(@PathVariable UUID id) {
-        OrderResponseDTO response = orderService.findById(id);
+    public ResponseEntity<OrderResponseDTO> findById(@PathVariable UUID id,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        OrderResponseDTO response = orderService.findById(id, archived);
         return ResponseEntity.ok().body(response);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<OrderResponseDTO>> findByStatus(@PathVariable OrderStatus status) {
-        List<OrderResponseDTO> response = orderService.findByStatus(status);
+    public ResponseEntity<OrderPageDTO> findByStatus(@PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        OrderPageDTO response = orderService.findByStatus(status, cursor, size, archived);
         return ResponseEntity.ok().body(response);
     }
 
+    @GetMapping(value = "/status/{status}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamByStatus(@PathVariable OrderStatus status) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(ndjson(status));
+    }
+
+    @PatchMapping("/status")
+    public ResponseEntity<BulkUpdateOrderStatusResponseDTO> updateStatusAll(
+            @Valid @RequestBody BulkUpdateOrderStatusDTO dto) {
+        BulkUpdateOrderStatusResponseDTO response = orderService.updateAll(dto);
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<OrderResponseDTO> updateStatus(@PathVariable UUID id,
             @Valid @RequestBody UpdateOrderDTO dto) {
         OrderResponseDTO response = orderService.update(id, dto);
         return ResponseEntity.ok(response);
     }
+
+    // Escreve uma linha JSON por pedido conforme o cursor do banco avança (heap constante)
+    private StreamingResponseBody ndjson(OrderStatus status) {
+        return out -> orderService.streamAll(status, order -> {
+            try {
+                out.write(jsonMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
 }
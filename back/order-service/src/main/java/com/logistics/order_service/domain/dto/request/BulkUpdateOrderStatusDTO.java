@@ -0,0 +1,16 @@
+package com.logistics.order_service.domain.dto.request;
+
+import com.logistics.order_service.domain.enums.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkUpdateOrderStatusDTO(
+        @NotEmpty(message = "Informe ao menos um pedido")
+        List<@NotNull UUID> ids,
+
+        @NotNull(message = "O status do pedido deve ser informado")
+        OrderStatus status
+) { }
@@ -0,0 +1,10 @@
+package com.logistics.order_service.domain.dto.response;
+
+import java.util.List;
+
+public record BulkCreateOrderResponseDTO(
+        int created,
+        int rejected,
+        List<BulkOrderItemResultDTO> results
+) {
+}
@@ -0,0 +1,16 @@
+package com.logistics.order_service.domain.dto.response;
+
+public record BulkOrderItemResultDTO(
+        int index,
+        boolean success,
+        OrderResponseDTO order,
+        String error
+) {
+    public static BulkOrderItemResultDTO created(int index, OrderResponseDTO order) {
+        return new BulkOrderItemResultDTO(index, true, order, null);
+    }
+
+    public static BulkOrderItemResultDTO rejected(int index, String error) {
+        return new BulkOrderItemResultDTO(index, false, null, error);
+    }
+}
@@ -0,0 +1,14 @@
+package com.logistics.order_service.domain.dto.response;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkUpdateOrderStatusResponseDTO(
+        int updated,
+        List<OrderResponseDTO> orders,
+        // Ids sem pedido, nem ativo nem arquivado (ex.: digitados errado)
+        List<UUID> notFound,
+        // Pedidos que existem mas não podem ir para o status pedido (já nele, à frente, cancelados ou finalizados)
+        List<UUID> notEligible
+) {
+}
@@ -0,0 +1,9 @@
+package com.logistics.order_service.domain.dto.response;
+
+import java.util.List;
+
+public record OrderPageDTO(
+        List<OrderResponseDTO> content,
+        String nextCursor
+) {
+}
@@ -0,0 +1,16 @@
+package com.logistics.order_service.domain.dto.response;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record OrderStatsDTO(
+        long total,
+        BigDecimal totalAmount,
+        List<OrderStatusStatsDTO> byStatus,
+        // Pedidos criados / mudanças de status no último minuto fechado
+        long createdPerMinute,
+        long statusChangesPerMinute,
+        Instant reconciledAt
+) {
+}
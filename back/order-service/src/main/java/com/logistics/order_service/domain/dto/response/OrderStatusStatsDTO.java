@@ -0,0 +1,17 @@
+package com.logistics.order_service.domain.dto.response;
+
+import com.logistics.order_service.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+public record OrderStatusStatsDTO(
+        OrderStatus status,
+        long count,
+        BigDecimal totalAmount
+) {
+    public OrderStatusStatsDTO {
+        if (totalAmount == null) {
+            totalAmount = BigDecimal.ZERO;
+        }
+    }
+}
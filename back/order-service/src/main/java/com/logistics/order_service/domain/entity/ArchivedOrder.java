@@ -0,0 +1,38 @@
+package com.logistics.order_service.domain.entity;
+
+import com.logistics.order_service.domain.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Pedido em status terminal movido de tb_orders pelo OrderArchiver; somente leitura
+@Entity
+@Table(name = "tb_orders_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private UUID id;
+
+    private String customerName;
+
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
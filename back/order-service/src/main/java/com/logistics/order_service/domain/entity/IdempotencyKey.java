@@ -0,0 +1,30 @@
+package com.logistics.order_service.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Chave de idempotência de criação de pedido; gravada via IdempotencyKeyRepository.claim (insert ... on conflict)
+@Entity
+@Table(name = "tb_order_idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private UUID orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+// Schema e índices versionados em db/migration (Flyway)
 @Table(name = "tb_orders")
 @Getter
 @Setter
@@ -30,6 +31,11 @@ public class Order {
 
     private LocalDateTime createdAt;
 
+    // Controle de concorrência otimista: dois PATCH simultâneos não passam ambos pela validação
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void prePersist() {
         this.createdAt = LocalDateTime.now();
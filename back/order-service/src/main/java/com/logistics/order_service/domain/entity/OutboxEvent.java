@@ -0,0 +1,88 @@
+package com.logistics.order_service.domain.entity;
+
+import com.logistics.order_service.domain.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+// Evento gravado na mesma transação do pedido e publicado depois pelo relay
+@Entity
+@Table(name = "tb_order_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // Momento da gravação do evento (na transação do pedido), em epoch millis: base da latência ponta a ponta
+    public static final String COMMITTED_AT_HEADER = "x-order-committed-at";
+    // Réplica que gravou o evento: ela já aplicou a escrita nas próprias estatísticas
+    public static final String ORIGIN_HEADER = "x-order-origin";
+    // Status antes da transição; ausente quando o pedido acabou de ser criado
+    public static final String PREVIOUS_STATUS_HEADER = "x-order-previous-status";
+    // Id da transação que gravou o evento (ver OrderStats.recordRemote)
+    public static final String XACT_ID_HEADER = "x-order-xact-id";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "tb_order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private UUID aggregateId;
+
+    private String contentType;
+
+    private String correlationId;
+
+    private String origin;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus previousStatus;
+
+    // Preenchido pelo default da coluna na inserção
+    @Column(insertable = false, updatable = false)
+    private Long xactId;
+
+    // Ordem dos eventos de um mesmo pedido, atribuída pelo banco na inserção (ver V6)
+    @Column(insertable = false, updatable = false)
+    private Long sequenceNumber;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    private LocalDateTime createdAt;
+
+    // Reservado por um relay até este instante (relógio do banco); nulo quando livre
+    private LocalDateTime claimedUntil;
+
+    @PrePersist
+    protected void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Message toMessage() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(id.toString());
+        properties.setCorrelationId(correlationId);
+        properties.setHeader(COMMITTED_AT_HEADER, createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (origin != null) {
+            properties.setHeader(ORIGIN_HEADER, origin);
+        }
+        if (previousStatus != null) {
+            properties.setHeader(PREVIOUS_STATUS_HEADER, previousStatus.name());
+        }
+        if (xactId != null) {
+            properties.setHeader(XACT_ID_HEADER, xactId);
+        }
+        return new Message(payload, properties);
+    }
+}
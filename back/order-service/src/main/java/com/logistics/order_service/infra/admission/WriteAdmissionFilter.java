@@ -0,0 +1,91 @@
+package com.logistics.order_service.infra.admission;
+
+import com.logistics.order_service.config.WebConfig;
+import com.logistics.order_service.domain.dto.response.ErrorResponseDTO;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Controle de admissão das escritas (POST/PATCH em /orders): acima do limite adaptativo responde 429 na hora,
+// antes de ocupar conexão do pool ou fazer parse do corpo. Roda depois do CorrelationIdFilter e do filtro de CORS
+// (ver WebConfig), então a recusa também leva o id de correlação e os headers de CORS
+@Component
+@Order(WebConfig.CORS_FILTER_ORDER + 1)
+@ConditionalOnProperty(name = "orders.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class WriteAdmissionFilter extends OncePerRequestFilter {
+
+    private final WriteConcurrencyLimiter limiter;
+    private final JsonMapper jsonMapper;
+    private final String retryAfterSeconds;
+
+    public WriteAdmissionFilter(WriteConcurrencyLimiter limiter, JsonMapper jsonMapper,
+            @Value("${orders.admission.retry-after:1s}") Duration retryAfter) {
+        this.limiter = limiter;
+        this.jsonMapper = jsonMapper;
+        this.retryAfterSeconds = retryAfterSeconds(retryAfter);
+    }
+
+    // Retry-After só aceita segundos inteiros
+    public static String retryAfterSeconds(Duration retryAfter) {
+        return Long.toString(Math.max(1, retryAfter.plusMillis(999).toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PATCH".equals(method)) || !request.getRequestURI().startsWith("/orders");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!limiter.tryAcquire()) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            release(completed ? response.getStatus() : HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    System.nanoTime() - start);
+        }
+    }
+
+    // 503/504 vêm de pool ou banco saturados (ver GlobalExceptionHandler); 4xx e 500 de bug não dizem nada sobre a carga
+    private void release(int status, long latencyNanos) {
+        if (status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            limiter.onDropped();
+        } else if (status < 400) {
+            limiter.onSuccess(latencyNanos);
+        } else {
+            limiter.onIgnored();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        var error = new ErrorResponseDTO("Too Many Requests",
+                "Limite de escritas simultâneas atingido. Tente novamente em " + retryAfterSeconds + "s",
+                HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), error);
+    }
+}
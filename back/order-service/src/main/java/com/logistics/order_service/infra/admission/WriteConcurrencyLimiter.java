@@ -0,0 +1,166 @@
+package com.logistics.order_service.infra.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Limite adaptativo de escritas simultâneas (AIMD guiado pela latência). A cada janela de ~limit respostas
+// compara a latência média com a base (menor latência recente, sem fila): acima de tolerance x a base, ou com
+// falha por sobrecarga, o limite cai multiplicativamente; abaixo, e com o limite de fato em uso, sobe um.
+// Assim a fila fica fora do Tomcat e do Hikari e o excesso é recusado rápido em vez de esperar e estourar
+@Component
+@ConditionalOnProperty(name = "orders.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class WriteConcurrencyLimiter {
+
+    private static final int MIN_WINDOW = 10;
+    // A base é recalculada de tempos em tempos para acompanhar uma base que ficou mais lenta de vez
+    private static final int BASELINE_WINDOWS = 20;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger windowPeak = new AtomicInteger();
+    private volatile int limit;
+
+    // Estado da janela, só alterado com o lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private int windowSamples;
+    private int windowSuccesses;
+    private long windowNanos;
+    private boolean windowDropped;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long nextBaselineNanos = Long.MAX_VALUE;
+    private int windowsSinceBaseline;
+
+    private final Counter rejected;
+    private final Counter dropped;
+
+    public WriteConcurrencyLimiter(MeterRegistry meterRegistry,
+            @Value("${orders.admission.initial-limit:20}") int initialLimit,
+            @Value("${orders.admission.min-limit:4}") int minLimit,
+            @Value("${orders.admission.max-limit:200}") int maxLimit,
+            @Value("${orders.admission.tolerance:2.0}") double tolerance,
+            @Value("${orders.admission.backoff:0.9}") double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("orders.admission: min-limit >= 1 e max-limit >= min-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+
+        Gauge.builder("orders.admission.limit", this, WriteConcurrencyLimiter::limit)
+                .description("Escritas simultâneas admitidas no momento (limite adaptativo)")
+                .register(meterRegistry);
+        Gauge.builder("orders.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Escritas em andamento")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("orders.admission.rejected")
+                .description("Escritas recusadas com 429 por estarem acima do limite")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("orders.admission.dropped")
+                .description("Escritas admitidas que falharam por saturação (503/504); reduzem o limite")
+                .register(meterRegistry);
+    }
+
+    // Sem fila: acima do limite a resposta é imediata
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowPeak.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        inFlight.decrementAndGet();
+        lock.lock();
+        try {
+            windowSamples++;
+            windowSuccesses++;
+            windowNanos += latencyNanos;
+            nextBaselineNanos = Math.min(nextBaselineNanos, latencyNanos);
+            baselineNanos = Math.min(baselineNanos, latencyNanos);
+            closeWindowIfFull();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Timeout de pool ou de banco: reduz na hora, sem esperar a janela fechar, mas uma vez por janela
+    // (uma rajada de timeouts é um único sinal de sobrecarga)
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        dropped.increment();
+        lock.lock();
+        try {
+            windowSamples++;
+            if (!windowDropped) {
+                windowDropped = true;
+                decrease();
+            }
+            closeWindowIfFull();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Respostas que não dizem nada sobre a carga (validação, 404, 409): só liberam a vaga
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void closeWindowIfFull() {
+        if (windowSamples < Math.max(limit, MIN_WINDOW)) {
+            return;
+        }
+
+        int peak = windowPeak.getAndSet(inFlight.get());
+        if (!windowDropped) {
+            if (windowNanos / windowSuccesses > baselineNanos * tolerance) {
+                decrease();
+            } else if (peak * 2 >= limit) {
+                // Só cresce se a janela usou ao menos metade do limite; ocioso, o limite não diz nada
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+
+        windowSamples = 0;
+        windowSuccesses = 0;
+        windowNanos = 0;
+        windowDropped = false;
+        if (++windowsSinceBaseline >= BASELINE_WINDOWS && nextBaselineNanos != Long.MAX_VALUE) {
+            baselineNanos = nextBaselineNanos;
+            nextBaselineNanos = Long.MAX_VALUE;
+            windowsSinceBaseline = 0;
+        }
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, (int) (limit * backoff));
+    }
+}
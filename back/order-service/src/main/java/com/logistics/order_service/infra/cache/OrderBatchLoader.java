@@ -0,0 +1,136 @@
+package com.logistics.order_service.infra.cache;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Junta os ids pedidos dentro de uma janela curta num único SELECT ... WHERE id IN (...)
+@Component
+public class OrderBatchLoader {
+
+    private final OrderRepository orderRepository;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Só ids ainda não enviados à base: quem chega depois que o SELECT saiu abre um lote novo
+    private Map<UUID, CompletableFuture<OrderResponseDTO>> pending = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("order-batch-loader").factory());
+    private final ExecutorService queries = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter queryCounter;
+    private final DistributionSummary batchSize;
+
+    public OrderBatchLoader(OrderRepository orderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${orders.read.batch-window:2ms}") Duration window,
+            @Value("${orders.read.batch-max-size:100}") int maxBatchSize) {
+        this.orderRepository = orderRepository;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+
+        this.queryCounter = Counter.builder("orders.read.queries")
+                .description("SELECTs de pedidos por id emitidos pelo carregador em lote")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("orders.read.batch.size")
+                .description("Ids distintos buscados por SELECT")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<OrderResponseDTO> load(UUID id) {
+        CompletableFuture<OrderResponseDTO> future;
+        Map<UUID, CompletableFuture<OrderResponseDTO>> ready = null;
+        boolean first;
+
+        lock.lock();
+        try {
+            future = pending.get(id);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(id, future);
+            first = pending.size() == 1;
+            if (pending.size() >= maxBatchSize || window.isZero()) {
+                ready = takePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (ready != null) {
+            dispatch(ready);
+        } else if (first) {
+            timer.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return future;
+    }
+
+    private void flush() {
+        Map<UUID, CompletableFuture<OrderResponseDTO>> ready;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = takePending();
+        } finally {
+            lock.unlock();
+        }
+        dispatch(ready);
+    }
+
+    private Map<UUID, CompletableFuture<OrderResponseDTO>> takePending() {
+        Map<UUID, CompletableFuture<OrderResponseDTO>> ready = pending;
+        pending = new LinkedHashMap<>();
+        return ready;
+    }
+
+    private void dispatch(Map<UUID, CompletableFuture<OrderResponseDTO>> batch) {
+        queries.execute(() -> {
+            try {
+                queryCounter.increment();
+                batchSize.record(batch.size());
+                Map<UUID, OrderResponseDTO> found = orderRepository.findResponsesByIdIn(batch.keySet()).stream()
+                        .collect(Collectors.toMap(OrderResponseDTO::id, Function.identity()));
+
+                batch.forEach((id, future) -> {
+                    OrderResponseDTO order = found.get(id);
+                    if (order != null) {
+                        future.complete(order);
+                    } else {
+                        future.completeExceptionally(new RuntimeException("Pedido não encontrado"));
+                    }
+                });
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        queries.shutdown();
+    }
+}
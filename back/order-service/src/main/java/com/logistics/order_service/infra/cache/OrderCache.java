@@ -0,0 +1,146 @@
+package com.logistics.order_service.infra.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.order_service.domain.dto.response.OrderPageDTO;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Cache local (read-through) de pedidos; escritas só são aplicadas após o commit da transação
+@Component
+public class OrderCache {
+
+    public static final String ORDERS = "orders";
+    public static final String ORDERS_BY_STATUS = "ordersByStatus";
+
+    // Pedidos ficam num cache assíncrono: leituras simultâneas do mesmo id compartilham o mesmo future
+    // e nenhum lock fica preso enquanto o SELECT roda
+    private final AsyncCache<Object, Object> asyncOrders;
+    private final Cache orders;
+    private final Cache ordersByStatus;
+
+    private final Counter requests;
+    private final Counter coalesced;
+    private final Counter loads;
+
+    public OrderCache(MeterRegistry meterRegistry,
+            @Value("${orders.cache.maximum-size:10000}") long maximumSize,
+            @Value("${orders.cache.ttl:30s}") Duration ttl,
+            @Value("${orders.cache.status-ttl:5s}") Duration statusTtl) {
+        this.asyncOrders = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, asyncOrders.synchronous(), ORDERS);
+        this.orders = new TransactionAwareCacheDecorator(new CaffeineCache(ORDERS, asyncOrders, false));
+        this.ordersByStatus = create(meterRegistry, ORDERS_BY_STATUS, maximumSize, statusTtl);
+
+        this.requests = Counter.builder("orders.read.requests")
+                .description("Leituras de pedido por id")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("orders.read.coalesced")
+                .description("Leituras que aproveitaram uma busca em andamento do mesmo pedido")
+                .register(meterRegistry);
+        this.loads = Counter.builder("orders.read.loads")
+                .description("Leituras que precisaram buscar o pedido na base")
+                .register(meterRegistry);
+        Gauge.builder("orders.read.coalescing.ratio", this, OrderCache::coalescingRatio)
+                .description("Fração das leituras por id atendidas sem busca própria na base (cache ou busca compartilhada)")
+                .register(meterRegistry);
+    }
+
+    // Um único loader por id em andamento; a invalidação remove o future, então ninguém
+    // pega carona numa leitura iniciada antes de uma alteração
+    public OrderResponseDTO get(UUID id, Function<UUID, CompletableFuture<OrderResponseDTO>> loader) {
+        requests.increment();
+        CompletableFuture<Object> pending = asyncOrders.getIfPresent(id);
+        if (pending != null && !pending.isDone()) {
+            coalesced.increment();
+        }
+
+        CompletableFuture<Object> future = asyncOrders.get(id, (key, executor) -> {
+            loads.increment();
+            return loader.apply(id).thenApply(order -> order);
+        });
+        try {
+            return (OrderResponseDTO) future.join();
+        } catch (CompletionException e) {
+            // Devolve a exceção original do loader (ex.: pedido não encontrado)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public OrderPageDTO getPage(OrderStatus status, boolean archived, String cursor, int size,
+            Supplier<OrderPageDTO> loader) {
+        return load(ordersByStatus, status + ":" + archived + ":" + cursor + ":" + size, loader);
+    }
+
+    public void put(OrderResponseDTO order) {
+        orders.put(order.id(), order);
+        ordersByStatus.clear();
+    }
+
+    public void putAll(Collection<OrderResponseDTO> changed) {
+        changed.forEach(order -> orders.put(order.id(), order));
+        ordersByStatus.clear();
+    }
+
+    public void evict(UUID id) {
+        orders.evict(id);
+        ordersByStatus.clear();
+    }
+
+    public void evictAll(Collection<UUID> ids) {
+        ids.forEach(orders::evict);
+        ordersByStatus.clear();
+    }
+
+    private double coalescingRatio() {
+        double total = requests.count();
+        return total == 0 ? 0 : 1 - loads.count() / total;
+    }
+
+    private static <T> T load(Cache cache, Object key, Supplier<T> loader) {
+        try {
+            return cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            // Devolve a exceção original do loader (ex.: pedido não encontrado)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Cache create(MeterRegistry meterRegistry, String name, long maximumSize, Duration ttl) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, name);
+
+        return new TransactionAwareCacheDecorator(new CaffeineCache(name, nativeCache, false));
+    }
+}
@@ -0,0 +1,86 @@
+package com.logistics.order_service.infra.diagnostics;
+
+import com.rabbitmq.client.Channel;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ChannelListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Saturação dos dois pools que limitam a vazão de escrita: conexões JDBC (Hikari) e canais AMQP (cache do
+// CachingConnectionFactory). Acima de 1 no JDBC já há thread esperando conexão; 1 nos canais significa que
+// o próximo checkout espera o checkout-timeout
+@Component
+public class ConnectionPoolMetrics implements MeterBinder {
+
+    private final HikariDataSource dataSource;
+    private final CachingConnectionFactory connectionFactory;
+    private final AtomicInteger openChannels = new AtomicInteger();
+
+    public ConnectionPoolMetrics(ObjectProvider<HikariDataSource> dataSource,
+            ObjectProvider<CachingConnectionFactory> connectionFactory) {
+        this.dataSource = dataSource.getIfAvailable();
+        this.connectionFactory = connectionFactory.getIfAvailable();
+        if (this.connectionFactory != null) {
+            this.connectionFactory.addChannelListener(new OpenChannelCounter());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (dataSource != null) {
+            Gauge.builder("db.pool.saturation", this, ConnectionPoolMetrics::jdbcSaturation)
+                    .description("Conexões em uso mais threads esperando, sobre o máximo do pool JDBC")
+                    .register(registry);
+        }
+        if (connectionFactory != null) {
+            Gauge.builder("rabbitmq.channels.open", openChannels, AtomicInteger::get)
+                    .description("Canais AMQP abertos, em uso ou ociosos no cache")
+                    .register(registry);
+            Gauge.builder("rabbitmq.channels.idle", this, ConnectionPoolMetrics::idleChannels)
+                    .description("Canais AMQP ociosos no cache, prontos para checkout")
+                    .register(registry);
+            Gauge.builder("rabbitmq.channels.saturation", this, ConnectionPoolMetrics::channelSaturation)
+                    .description("Canais AMQP em uso sobre o tamanho do cache de canais")
+                    .register(registry);
+        }
+    }
+
+    // O MXBean só existe depois da primeira conexão
+    double jdbcSaturation() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (double) (pool.getActiveConnections() + pool.getThreadsAwaitingConnection())
+                / dataSource.getMaximumPoolSize();
+    }
+
+    double idleChannels() {
+        Properties cache = connectionFactory.getCacheProperties();
+        return Integer.parseInt(cache.getProperty("idleChannelsNotTx", "0"))
+                + Integer.parseInt(cache.getProperty("idleChannelsTx", "0"));
+    }
+
+    double channelSaturation() {
+        double inUse = Math.max(0, openChannels.get() - idleChannels());
+        return inUse / connectionFactory.getChannelCacheSize();
+    }
+
+    // O cache não expõe quantos canais estão abertos: conta na criação e no fechamento físico de cada um
+    private class OpenChannelCounter implements ChannelListener {
+
+        @Override
+        public void onCreate(Channel channel, boolean transactional) {
+            openChannels.incrementAndGet();
+            channel.addShutdownListener(cause -> openChannels.decrementAndGet());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.logistics.order_service.infra.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Escuta o evento JFR jdk.VirtualThreadPinned: aponta onde uma virtual thread bloqueou presa à carrier
+// (synchronized até o JDK 23, frames nativos, inicialização de classe, locks dentro de drivers)
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${diagnostics.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String source = source(frames);
+
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Tempo em que uma virtual thread bloqueou presa à carrier")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        log.warn("Virtual thread presa à carrier por {} ms em {}:\n{}", event.getDuration().toMillis(), source,
+                frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::format)
+                        .collect(Collectors.joining("\n")));
+    }
+
+    // Primeiro frame fora do JDK: o nosso código ou o driver que segurou a carrier
+    static String source(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type;
+            }
+        }
+        return "jdk";
+    }
+
+    private static String format(RecordedFrame frame) {
+        return "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    public void close() {
+        stream.close();
+    }
+}
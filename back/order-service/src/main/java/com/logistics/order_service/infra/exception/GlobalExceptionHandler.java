@@ -1,19 +1,34 @@
 package com.logistics.order_service.infra.exception;
 
 import com.logistics.order_service.domain.dto.response.ErrorResponseDTO;
+import com.logistics.order_service.infra.admission.WriteAdmissionFilter;
+import com.logistics.order_service.infra.idempotency.IdempotencyKeyReuseException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final String retryAfterSeconds;
+
+    public GlobalExceptionHandler(@Value("${orders.admission.retry-after:1s}") Duration retryAfter) {
+        this.retryAfterSeconds = WriteAdmissionFilter.retryAfterSeconds(retryAfter);
+    }
+
     // 1. Captura erros de Regra de Negócio (Status 400)
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponseDTO> handleBusinessError(IllegalArgumentException ex) {
@@ -21,7 +36,24 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
-    // 3. Captura erros de Validação do DTO (@Valid)
+    // 2. Captura conflitos de concorrência otimista (@Version) no mesmo pedido (Status 409)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDTO> handleConcurrentUpdate(OptimisticLockingFailureException ex) {
+        var error = new ErrorResponseDTO("Conflict",
+                "O pedido foi alterado por outra requisição. Recarregue e tente novamente",
+                HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    // 3. Captura Idempotency-Key repetida com outro corpo (Status 422)
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex) {
+        var error = new ErrorResponseDTO("Unprocessable Content", ex.getMessage(),
+                HttpStatus.UNPROCESSABLE_CONTENT.value());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_CONTENT).body(error);
+    }
+
+    // 4. Captura erros de Validação do DTO (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDTO> handleValidationError(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getFieldErrors().stream()
@@ -32,7 +64,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
-    // 4. Captura QUALQUER outra exceção que não mapeamos acima
+    // 5. Captura pool JDBC esgotado (connection-timeout), banco fora ou consulta estourando o tempo (Status 503).
+    // É sobrecarga, não bug: o cliente recebe Retry-After e o limite de escritas cai
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<ErrorResponseDTO> handleSaturation(Exception ex) {
+        log.warn("Base indisponível ou saturada: {}", ex.getMessage());
+
+        var error = new ErrorResponseDTO("Service Unavailable",
+                "Serviço sobrecarregado. Tente novamente em " + retryAfterSeconds + "s",
+                HttpStatus.SERVICE_UNAVAILABLE.value());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .body(error);
+    }
+
+    // 6. Captura QUALQUER outra exceção que não mapeamos acima
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDTO> handleGenericError(Exception ex) {
         // Log de erro de verdade, que o Docker vai capturar com certeza
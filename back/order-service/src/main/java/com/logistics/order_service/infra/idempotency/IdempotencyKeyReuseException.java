@@ -0,0 +1,9 @@
+package com.logistics.order_service.infra.idempotency;
+
+// Mesma Idempotency-Key reaproveitada com um corpo diferente do da requisição original
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException() {
+        super("A Idempotency-Key informada já foi usada com outro pedido");
+    }
+}
@@ -0,0 +1,138 @@
+package com.logistics.order_service.infra.idempotency;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+// Chaves de idempotência do POST /orders: cache local limitado na frente de tb_order_idempotency_keys.
+// Uma repetição respondida pelo cache não abre transação nem pega conexão do pool.
+@Component
+@Slf4j
+public class IdempotencyKeyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final String CACHE = "idempotencyKeys";
+
+    private static final Pattern VALID = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private final IdempotencyKeyRepository repository;
+    private final Cache responses;
+    private final Duration retention;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+
+    public IdempotencyKeyStore(IdempotencyKeyRepository repository,
+            MeterRegistry meterRegistry,
+            @Value("${orders.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${orders.idempotency.retention:24h}") Duration retention) {
+        this.repository = repository;
+        this.retention = retention;
+
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, nativeCache, CACHE);
+        // Só entra no cache depois do commit: um rollback não deixa resposta de pedido inexistente
+        this.responses = new TransactionAwareCacheDecorator(new CaffeineCache(CACHE, nativeCache, false));
+
+        this.memoryHits = Counter.builder("orders.idempotency.replayed")
+                .description("Criações repetidas respondidas com o pedido original")
+                .tag("source", "memory")
+                .register(meterRegistry);
+        this.databaseHits = Counter.builder("orders.idempotency.replayed")
+                .description("Criações repetidas respondidas com o pedido original")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    // Pedido já criado com esta chave, se houver; a mesma chave com outro corpo é rejeitada
+    public Optional<OrderResponseDTO> find(String key, String requestHash) {
+        StoredResponse stored = responses.get(key, StoredResponse.class);
+        if (stored != null) {
+            memoryHits.increment();
+            return Optional.of(stored.matching(requestHash));
+        }
+
+        return repository.findOrder(key).map(order -> {
+            StoredResponse loaded = new StoredResponse(order.getRequestHash(), order.toResponse());
+            responses.put(key, loaded);
+            databaseHits.increment();
+            return loaded.matching(requestHash);
+        });
+    }
+
+    // Reserva a chave na transação corrente; false quando outra requisição já criou o pedido com ela
+    public boolean claim(String key, String requestHash) {
+        return repository.claim(key, requestHash) == 1;
+    }
+
+    public void complete(String key, String requestHash, OrderResponseDTO order) {
+        repository.complete(key, order.id());
+        responses.put(key, new StoredResponse(requestHash, order));
+    }
+
+    public String requestHash(CreateOrderDTO dto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(dto.customerName()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            // 10 e 10.00 são o mesmo valor
+            String amount = dto.amount() != null ? dto.amount().stripTrailingZeros().toPlainString() : "";
+            digest.update(amount.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void validate(String key) {
+        if (!VALID.matcher(key).matches()) {
+            throw new IllegalArgumentException(
+                    "O header " + HEADER + " deve ter até 128 caracteres entre letras, números e . _ : -");
+        }
+    }
+
+    // Depois da retenção a mesma chave volta a criar um pedido novo
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:1h}")
+    @Transactional
+    public void purge() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("{} chaves de idempotência expiradas removidas", removed);
+        }
+    }
+
+    private record StoredResponse(String requestHash, OrderResponseDTO order) {
+
+        OrderResponseDTO matching(String requestHash) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyReuseException();
+            }
+            return order;
+        }
+    }
+}
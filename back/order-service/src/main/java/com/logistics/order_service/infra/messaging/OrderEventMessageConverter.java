@@ -0,0 +1,37 @@
+package com.logistics.order_service.infra.messaging;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+// Publica no formato configurado e lê os dois pelo content-type: permite migrar JSON -> binário aos poucos
+public class OrderEventMessageConverter implements MessageConverter {
+
+    private final MessageConverter json;
+    private final boolean binary;
+
+    public OrderEventMessageConverter(MessageConverter json, boolean binary) {
+        this.json = json;
+        this.binary = binary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (binary && object instanceof OrderResponseDTO event) {
+            byte[] body = OrderEventBinaryCodec.encode(event);
+            messageProperties.setContentType(OrderEventBinaryCodec.CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+        return json.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (OrderEventBinaryCodec.CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return OrderEventBinaryCodec.decode(message.getBody());
+        }
+        return json.fromMessage(message);
+    }
+}
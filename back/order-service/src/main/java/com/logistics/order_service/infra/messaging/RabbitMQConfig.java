@@ -1,25 +1,55 @@
 package com.logistics.order_service.infra.messaging;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@Slf4j
 public class RabbitMQConfig {
 
     public static final String ORDER_EVENTS_QUEUE = "orders.v1.order-events";
+    public static final String ORDER_EVENTS_EXCHANGE = "orders.v1.order-events.fanout";
 
     @Bean
     public Queue orderCreatedQueue() {
         return new Queue(ORDER_EVENTS_QUEUE, true);
     }
 
+    // Fanout: a fila durável do notification-service e a fila de invalidação de cada réplica recebem todos os eventos
     @Bean
-    public MessageConverter messageConverter() {
+    public FanoutExchange orderEventsExchange() {
+        return new FanoutExchange(ORDER_EVENTS_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Binding orderEventsBinding(Queue orderCreatedQueue, FanoutExchange orderEventsExchange) {
+        return BindingBuilder.bind(orderCreatedQueue).to(orderEventsExchange);
+    }
+
+    @Bean
+    public Queue orderCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderCacheInvalidationBinding(Queue orderCacheInvalidationQueue, FanoutExchange orderEventsExchange) {
+        return BindingBuilder.bind(orderCacheInvalidationQueue).to(orderEventsExchange);
+    }
+
+    // order-events.wire-format: json (padrão) ou binary; o consumo sempre aceita os dois
+    @Bean
+    public MessageConverter messageConverter(@Value("${order-events.wire-format:json}") String wireFormat) {
         // Criamos o ObjectMapper de forma explícita para não ter erro
         var objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
 
@@ -33,13 +63,20 @@ public class RabbitMQConfig {
         // 3. (Opcional) Garante que o Jackson saiba lidar com Records sem construtor padrão
         objectMapper.setVisibility(com.fasterxml.jackson.annotation.PropertyAccessor.ALL, com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.ANY);
 
-        return new Jackson2JsonMessageConverter(objectMapper);
+        return new OrderEventMessageConverter(new Jackson2JsonMessageConverter(objectMapper),
+                "binary".equalsIgnoreCase(wireFormat));
     }
 
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
+        // mandatory: mensagem sem fila de destino volta para o publicador em vez de sumir no exchange.
+        // Com confirms correlacionados o retorno chega no CorrelationData antes do ack (ver OrderOutboxRelay)
+        template.setMandatory(true);
+        template.setReturnsCallback(returned -> log.warn("Mensagem {} devolvida pelo exchange {}: {} {}",
+                returned.getMessage().getMessageProperties().getMessageId(), returned.getExchange(),
+                returned.getReplyCode(), returned.getReplyText()));
         return template;
     }
 
@@ -0,0 +1,39 @@
+package com.logistics.order_service.infra.messaging.consumers;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.cache.OrderCache;
+import com.logistics.order_service.infra.messaging.outbox.OrderOutbox;
+import com.logistics.order_service.infra.stats.OrderStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+// Cada réplica tem sua própria fila ligada ao exchange de eventos, então todas recebem todas as transições
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OrderCacheInvalidationListener {
+
+    private final OrderCache orderCache;
+    private final OrderStats orderStats;
+    private final OrderOutbox orderOutbox;
+
+    @RabbitListener(queues = "#{orderCacheInvalidationQueue.name}")
+    public void onOrderEvent(OrderResponseDTO event,
+            @Header(name = OutboxEvent.ORIGIN_HEADER, required = false) String origin,
+            @Header(name = OutboxEvent.PREVIOUS_STATUS_HEADER, required = false) String previousStatus,
+            @Header(name = OutboxEvent.XACT_ID_HEADER, required = false) Long xactId) {
+        log.debug("Invalidando cache do pedido {}", event.id());
+        orderCache.evict(event.id());
+
+        // As escritas desta réplica já entraram nas estatísticas no commit; eventos sem origem (gravados antes
+        // dos headers) ficam para a reconciliação
+        if (origin != null && !origin.equals(orderOutbox.origin())) {
+            orderStats.recordRemote(previousStatus != null ? OrderStatus.valueOf(previousStatus) : null, event, xactId);
+        }
+    }
+}
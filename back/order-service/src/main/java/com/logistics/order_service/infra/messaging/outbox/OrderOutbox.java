@@ -0,0 +1,69 @@
+package com.logistics.order_service.infra.messaging.outbox;
+
+import com.logistics.order_service.config.CorrelationIdFilter;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.stats.OrderStats;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MessageConverter messageConverter;
+    // Identifica esta réplica nos eventos que ela grava (ver OrderCacheInvalidationListener)
+    private final String origin = UUID.randomUUID().toString();
+
+    public String origin() {
+        return origin;
+    }
+
+    // Precisa rodar dentro da transação de quem alterou o pedido
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderResponseDTO event) {
+        outboxEventRepository.save(toOutboxEvent(event, null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OrderStatus previous, OrderResponseDTO event) {
+        outboxEventRepository.save(toOutboxEvent(event, previous));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<OrderResponseDTO> events) {
+        outboxEventRepository.saveAll(events.stream().map(event -> toOutboxEvent(event, null)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendTransitions(List<OrderStats.Transition> transitions) {
+        outboxEventRepository.saveAll(transitions.stream()
+                .map(transition -> toOutboxEvent(transition.order(), transition.previous()))
+                .toList());
+    }
+
+    private OutboxEvent toOutboxEvent(OrderResponseDTO event, OrderStatus previous) {
+        Message message = messageConverter.toMessage(event, new MessageProperties());
+
+        return OutboxEvent.builder()
+                .aggregateId(event.id())
+                .contentType(message.getMessageProperties().getContentType())
+                .correlationId(MDC.get(CorrelationIdFilter.MDC_KEY))
+                .origin(origin)
+                .previousStatus(previous)
+                .payload(message.getBody())
+                .build();
+    }
+}
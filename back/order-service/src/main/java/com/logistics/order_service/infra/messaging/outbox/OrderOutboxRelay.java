@@ -0,0 +1,188 @@
+package com.logistics.order_service.infra.messaging.outbox;
+
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class OrderOutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionOperations transactions;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final double leaseSeconds;
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter returnedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer publishTimer;
+    private final Timer delayTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public OrderOutboxRelay(OutboxEventRepository outboxEventRepository,
+            RabbitTemplate rabbitTemplate,
+            TransactionOperations transactions,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.confirm-timeout:5s}") Duration confirmTimeout,
+            @Value("${outbox.relay.lease:30s}") Duration lease) {
+        if (lease.compareTo(confirmTimeout) <= 0) {
+            throw new IllegalArgumentException("outbox.relay.lease precisa ser maior que outbox.relay.confirm-timeout");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactions = transactions;
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.leaseSeconds = lease.toMillis() / 1000.0;
+
+        this.publishedCounter = Counter.builder("orders.outbox.published")
+                .description("Eventos confirmados pelo broker e removidos da outbox")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("orders.outbox.failed")
+                .description("Eventos sem confirmação positiva, mantidos para nova tentativa")
+                .register(meterRegistry);
+        this.returnedCounter = Counter.builder("orders.outbox.returned")
+                .description("Eventos devolvidos pelo broker por não terem fila de destino")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("orders.outbox.batch.size")
+                .description("Quantidade de eventos drenados por ciclo do relay")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("orders.outbox.publish")
+                .description("Envio de um lote ao broker até a última confirmação")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.delayTimer = Timer.builder("orders.outbox.delay")
+                .description("Da gravação do evento na outbox até a confirmação do broker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.outbox.lag.ms", lagMillis);
+    }
+
+    // Drena a outbox em lotes: publica tudo num único canal, espera os confirms de uma vez e apaga só o que foi confirmado.
+    // Nenhuma transação fica aberta durante a publicação: com o broker lento, o relay não prende conexão do pool
+    // nem locks. Reserva o lote numa transação curta e apaga os confirmados em outra.
+    // Garantia de ordem: os eventos de um mesmo pedido chegam ao exchange na ordem em que foram gravados, com
+    // quantos relays houver. Cada lote leva no máximo um evento por pedido (o mais antigo ainda não confirmado), então
+    // uma rajada de transições do mesmo pedido sai um evento por ciclo. Reentregas (at-least-once) podem repetir um
+    // evento, mas nunca depois de um posterior do mesmo pedido
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:200ms}")
+    public int relay() {
+        List<OutboxEvent> batch = claimNextBatch();
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+
+        lagMillis.set(Duration.between(batch.getFirst().getCreatedAt(), LocalDateTime.now()).toMillis());
+        batchSizeSummary.record(batch.size());
+
+        Timer.Sample publishSample = Timer.start();
+        List<CorrelationData> confirmations = new ArrayList<>(batch.size());
+        try {
+            // Um checkout do cache de canais por lote, não por mensagem; os confirms chegam nos futures
+            rabbitTemplate.invoke(operations -> {
+                for (OutboxEvent event : batch) {
+                    CorrelationData correlation = new CorrelationData(event.getId().toString());
+                    operations.send(RabbitMQConfig.ORDER_EVENTS_EXCHANGE, "", event.toMessage(), correlation);
+                    confirmations.add(correlation);
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            log.warn("Falha ao publicar lote da outbox, {} eventos ficam para o próximo ciclo",
+                    batch.size() - confirmations.size(), e);
+        }
+
+        List<Long> confirmed = awaitConfirms(batch, confirmations);
+        publishSample.stop(publishTimer);
+
+        complete(batch, confirmed);
+        publishedCounter.increment(confirmed.size());
+        failedCounter.increment(batch.size() - confirmed.size());
+
+        return confirmed.size();
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        List<OutboxEvent> batch = new ArrayList<>(
+                transactions.execute(status -> outboxEventRepository.claimNextBatch(batchSize, leaseSeconds)));
+        batch.sort(Comparator.comparing(OutboxEvent::getSequenceNumber));
+        return batch;
+    }
+
+    // Se esta transação falhar, os eventos continuam reservados e voltam quando a reserva vencer: o broker pode
+    // receber de novo um evento já confirmado (entrega at-least-once; o consumidor descarta pelo messageId)
+    private void complete(List<OutboxEvent> batch, List<Long> confirmed) {
+        Set<Long> published = new HashSet<>(confirmed);
+        List<Long> unconfirmed = batch.stream().map(OutboxEvent::getId).filter(id -> !published.contains(id)).toList();
+        transactions.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(confirmed);
+            if (!unconfirmed.isEmpty()) {
+                outboxEventRepository.releaseClaims(unconfirmed);
+            }
+        });
+    }
+
+    // Uma única espera pelo lote inteiro, limitada pelo confirm-timeout; o que não confirmou até lá fica na outbox
+    private List<Long> awaitConfirms(List<OutboxEvent> batch, List<CorrelationData> confirmations) {
+        try {
+            CompletableFuture.allOf(confirmations.stream().map(CorrelationData::getFuture).toArray(CompletableFuture[]::new))
+                    .get(confirmTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Confirms pendentes após {} ms, eventos sem resposta ficam para o próximo ciclo",
+                    confirmTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Long> confirmed = new ArrayList<>(confirmations.size());
+        for (int i = 0; i < confirmations.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            CorrelationData correlation = confirmations.get(i);
+            CorrelationData.Confirm confirm = correlation.getFuture().getNow(null);
+            if (confirm == null) {
+                log.warn("Sem confirmação para o evento {} da outbox", event.getId());
+            } else if (!confirm.ack()) {
+                log.warn("Broker recusou o evento {} da outbox: {}", event.getId(), confirm.reason());
+            } else if (correlation.getReturned() != null) {
+                // Ack de mensagem devolvida: o exchange aceitou, mas nenhuma fila recebeu
+                returnedCounter.increment();
+            } else {
+                confirmed.add(event.getId());
+                delayTimer.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+        }
+
+        return confirmed;
+    }
+}
@@ -0,0 +1,53 @@
+package com.logistics.order_service.infra.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Contador por minuto de relógio: acumula o minuto corrente e guarda o total do minuto anterior
+class MinuteCounter {
+
+    private final LongSupplier clock;
+    private volatile long currentMinute;
+    private volatile LongAdder current = new LongAdder();
+    private volatile long previousMinute = -1;
+    private volatile long previousCount;
+
+    MinuteCounter(LongSupplier clock) {
+        this.clock = clock;
+        this.currentMinute = minuteNow();
+    }
+
+    void add(long value) {
+        long minute = minuteNow();
+        if (minute != currentMinute) {
+            rotate(minute);
+        }
+        current.add(value);
+    }
+
+    // Total do último minuto fechado
+    long lastMinute() {
+        long minute = minuteNow();
+        if (minute == currentMinute + 1) {
+            return current.sum();
+        }
+        if (minute == currentMinute && previousMinute == minute - 1) {
+            return previousCount;
+        }
+        return 0;
+    }
+
+    private synchronized void rotate(long minute) {
+        if (minute == currentMinute) {
+            return;
+        }
+        previousMinute = currentMinute;
+        previousCount = current.sum();
+        current = new LongAdder();
+        currentMinute = minute;
+    }
+
+    private long minuteNow() {
+        return clock.getAsLong() / 60_000;
+    }
+}
@@ -0,0 +1,316 @@
+package com.logistics.order_service.infra.stats;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatsDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+// Contadores por status mantidos em memória a cada escrita: ler as estatísticas nunca toca em tb_orders.
+// Cada réplica tem os seus e eles são eventualmente consistentes: as escritas locais entram no commit, as das outras
+// réplicas quando o evento chega pelo fanout (OrderCacheInvalidationListener), e a base é relida na subida e
+// periodicamente para corrigir o que escapar (arquivamento em outra réplica, evento perdido). Um evento remoto que
+// chega depois da reconciliação mas cuja transação o snapshot dela já enxergava é descartado: entrou pela base.
+// Cobre só tb_orders: pedidos arquivados saem das contagens.
+@Component
+@Slf4j
+public class OrderStats {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+
+    private final LongAdder[] counts = adders();
+    // Valores em centavos: o amount tem no máximo 2 casas decimais
+    private final LongAdder[] amounts = adders();
+    // Leitura: aplicar uma escrita (local do beforeCommit até aplicar, remota só ao aplicar).
+    // Escrita: a reconciliação fixando o snapshot e lendo os contadores, sem commit local no meio
+    private final ReadWriteLock commits = new ReentrantReadWriteLock();
+    // REPEATABLE READ: o snapshot do primeiro comando vale para a transação inteira
+    private final TransactionOperations snapshotTransaction;
+
+    private final MinuteCounter created;
+    private final MinuteCounter statusChanges;
+    private volatile Instant reconciledAt;
+    // Snapshot da última reconciliação; trocado junto com a leitura dos contadores, com os commits segurados
+    private volatile Snapshot reconciledSnapshot;
+
+    @Autowired
+    public OrderStats(OrderRepository orderRepository, PlatformTransactionManager transactionManager) {
+        this(orderRepository, snapshotTransaction(transactionManager), System::currentTimeMillis);
+    }
+
+    OrderStats(OrderRepository orderRepository, TransactionOperations snapshotTransaction, LongSupplier clock) {
+        this.orderRepository = orderRepository;
+        this.snapshotTransaction = snapshotTransaction;
+        this.created = new MinuteCounter(clock);
+        this.statusChanges = new MinuteCounter(clock);
+    }
+
+    public void recordCreated(Collection<OrderResponseDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (OrderResponseDTO order : orders) {
+                add(order.status(), 1, cents(order.amount()));
+            }
+            created.add(orders.size());
+        });
+    }
+
+    public void recordTransition(OrderStatus previous, OrderResponseDTO order) {
+        recordTransitions(List.of(new Transition(previous, order)));
+    }
+
+    public void recordTransitions(Collection<Transition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (Transition transition : transitions) {
+                long amount = cents(transition.order().amount());
+                add(transition.previous(), -1, -amount);
+                add(transition.order().status(), 1, amount);
+            }
+            statusChanges.add(transitions.size());
+        });
+    }
+
+    public void recordArchived(Collection<OrderResponseDTO> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            for (OrderResponseDTO order : orders) {
+                add(order.status(), -1, -cents(order.amount()));
+            }
+        });
+    }
+
+    // Escrita de outra réplica, vinda do fanout de eventos (previous nulo = pedido criado). Se a transação dela já
+    // era visível no snapshot da última reconciliação, a diferença com a base já a somou. Sem xactId (eventos
+    // gravados antes da coluna) aplica sempre; a sobra, se houver, sai na reconciliação seguinte
+    public void recordRemote(OrderStatus previous, OrderResponseDTO order, Long xactId) {
+        apply(() -> {
+            Snapshot snapshot = reconciledSnapshot;
+            if (xactId != null && snapshot != null && snapshot.sees(xactId)) {
+                return;
+            }
+            long amount = cents(order.amount());
+            if (previous == null) {
+                created.add(1);
+            } else {
+                add(previous, -1, -amount);
+                statusChanges.add(1);
+            }
+            add(order.status(), 1, amount);
+        });
+    }
+
+    // O(1): soma um número fixo de acumuladores, independente do volume de pedidos
+    public OrderStatsDTO snapshot() {
+        List<OrderStatusStatsDTO> byStatus = new ArrayList<>(STATUSES.length);
+        long total = 0;
+        long totalCents = 0;
+        for (OrderStatus status : STATUSES) {
+            long count = counts[status.ordinal()].sum();
+            long amount = amounts[status.ordinal()].sum();
+            byStatus.add(new OrderStatusStatsDTO(status, count, BigDecimal.valueOf(amount, 2)));
+            total += count;
+            totalCents += amount;
+        }
+        return new OrderStatsDTO(total, BigDecimal.valueOf(totalCents, 2), byStatus,
+                created.lastMinute(), statusChanges.lastMinute(), reconciledAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!reconcile()) {
+            log.warn("Estatísticas de pedidos não reconstruídas na subida; nova tentativa na próxima reconciliação");
+        }
+    }
+
+    // Aplica a diferença entre a base e os contadores como lidos no instante do snapshot: o que for aplicado depois
+    // (commits locais posteriores ao snapshot, eventos remotos que ele não enxergava) é somado por cima em vez de
+    // sobrescrito ou contado duas vezes
+    @Scheduled(initialDelayString = "${orders.stats.reconcile-interval:5m}",
+            fixedDelayString = "${orders.stats.reconcile-interval:5m}")
+    public boolean reconcile() {
+        Boolean reconciled = snapshotTransaction.execute(tx -> {
+            long[] baseCounts = new long[STATUSES.length];
+            long[] baseAmounts = new long[STATUSES.length];
+            if (!atSnapshot(baseCounts, baseAmounts)) {
+                return false;
+            }
+
+            long[] expectedCounts = new long[STATUSES.length];
+            long[] expectedAmounts = new long[STATUSES.length];
+            for (OrderStatusStatsDTO row : orderRepository.sumByStatus()) {
+                if (row.status() != null) {
+                    expectedCounts[row.status().ordinal()] = row.count();
+                    expectedAmounts[row.status().ordinal()] = cents(row.totalAmount());
+                }
+            }
+
+            long drift = 0;
+            for (int i = 0; i < STATUSES.length; i++) {
+                drift += Math.abs(expectedCounts[i] - baseCounts[i]);
+            }
+            apply(() -> {
+                for (int i = 0; i < STATUSES.length; i++) {
+                    counts[i].add(expectedCounts[i] - baseCounts[i]);
+                    amounts[i].add(expectedAmounts[i] - baseAmounts[i]);
+                }
+            });
+            if (drift > 0 && reconciledAt != null) {
+                log.info("Estatísticas de pedidos reconciliadas com a base ({} pedidos de divergência)", drift);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(reconciled)) {
+            return false;
+        }
+        reconciledAt = Instant.now();
+        return true;
+    }
+
+    // Com os commits locais segurados: tudo o que já foi commitado está aplicado, e o que ainda não foi fica de fora
+    // do snapshot. Segura só o tempo de um comando trivial (a conexão já foi obtida ao abrir a transação)
+    private boolean atSnapshot(long[] baseCounts, long[] baseAmounts) {
+        try {
+            if (!commits.writeLock().tryLock(1, TimeUnit.SECONDS)) {
+                log.debug("Reconciliação das estatísticas adiada: commits em andamento");
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            String snapshot = orderRepository.currentSnapshot();
+            log.debug("Reconciliando estatísticas no snapshot {}", snapshot);
+            reconciledSnapshot = Snapshot.parse(snapshot);
+            for (int i = 0; i < STATUSES.length; i++) {
+                baseCounts[i] = counts[i].sum();
+                baseAmounts[i] = amounts[i].sum();
+            }
+            return true;
+        } finally {
+            commits.writeLock().unlock();
+        }
+    }
+
+    private void add(OrderStatus status, long count, long amount) {
+        counts[status.ordinal()].add(count);
+        amounts[status.ordinal()].add(amount);
+    }
+
+    private void apply(Runnable action) {
+        commits.readLock().lock();
+        try {
+            action.run();
+        } finally {
+            commits.readLock().unlock();
+        }
+    }
+
+    // Só conta o que foi de fato commitado; fora de transação (ex.: testes) aplica na hora.
+    // O lock vai do beforeCommit ao afterCompletion: a reconciliação nunca fixa o snapshot entre o commit e a aplicação
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commits.readLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply(action);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    commits.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private static TransactionOperations snapshotTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[STATUSES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public record Transition(OrderStatus previous, OrderResponseDTO order) {
+    }
+
+    // pg_snapshot em texto, "xmin:xmax:xip,...": vê as transações abaixo de xmax que não estavam em andamento
+    private record Snapshot(long xmin, long xmax, Set<Long> inProgress) {
+
+        static Snapshot parse(String text) {
+            if (text == null) {
+                return null;
+            }
+            String[] parts = text.split(":", -1);
+            Set<Long> inProgress = parts[2].isEmpty() ? Set.of() : Arrays.stream(parts[2].split(","))
+                    .map(Long::valueOf)
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Snapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), inProgress);
+        }
+
+        boolean sees(long xactId) {
+            return xactId < xmin || (xactId < xmax && !inProgress.contains(xactId));
+        }
+    }
+}
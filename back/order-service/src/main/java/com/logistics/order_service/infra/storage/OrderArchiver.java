@@ -0,0 +1,64 @@
+package com.logistics.order_service.infra.storage;
+
+import com.logistics.order_service.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Move pedidos COMPLETED/CANCELED antigos para tb_orders_archive em lotes, cada um na sua transação:
+// tb_orders fica só com o que ainda está ativo ou é recente
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true")
+@Slf4j
+public class OrderArchiver {
+
+    private final OrderService orderService;
+    private final Duration olderThan;
+    private final int batchSize;
+
+    private final Counter archived;
+    private final Timer runTimer;
+
+    public OrderArchiver(OrderService orderService,
+            MeterRegistry meterRegistry,
+            @Value("${orders.archive.older-than:90d}") Duration olderThan,
+            @Value("${orders.archive.batch-size:1000}") int batchSize) {
+        this.orderService = orderService;
+        this.olderThan = olderThan;
+        this.batchSize = batchSize;
+
+        this.archived = Counter.builder("orders.archive.moved")
+                .description("Pedidos movidos para tb_orders_archive")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("orders.archive.run")
+                .description("Duração de um ciclo completo de arquivamento")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval:1h}")
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(olderThan);
+        return runTimer.record(() -> {
+            int total = 0;
+            int moved;
+            do {
+                moved = orderService.archive(cutoff, batchSize);
+                archived.increment(moved);
+                total += moved;
+            } while (moved == batchSize);
+
+            if (total > 0) {
+                log.info("{} pedidos criados antes de {} arquivados", total, cutoff);
+            }
+            return total;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.logistics.order_service.infra.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Modo particionado: tb_orders por mês de created_at. Consultas por status/keyset de pedidos recentes
+// só visitam as partições dos últimos meses, e os índices de cada mês ficam pequenos.
+// As funções SQL estão em V5__order_partitioning_and_archive.sql
+@Component
+@ConditionalOnProperty(name = "orders.storage.partitioned", havingValue = "true")
+@Slf4j
+public class OrderPartitionMaintenance {
+
+    private final JdbcTemplate jdbc;
+    private final int monthsAhead;
+
+    public OrderPartitionMaintenance(JdbcTemplate jdbc,
+            @Value("${orders.storage.partitions-ahead:2}") int monthsAhead) {
+        this.jdbc = jdbc;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // Conversão única (no-op se já particionada); trava tb_orders enquanto copia
+    @EventListener(ApplicationReadyEvent.class)
+    public void convert() {
+        long start = System.nanoTime();
+        jdbc.queryForList("select orders_partition_by_month(?)", monthsAhead);
+        log.info("tb_orders particionada por mês ({} ms)", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Mantém partições criadas com antecedência para nenhuma inserção cair na partição default
+    @Scheduled(fixedDelayString = "${orders.storage.partition-maintenance-interval:6h}")
+    public void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbc.queryForList("select orders_ensure_month_partition(?)", month.plusMonths(i));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.ArchivedOrder;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Mesmas leituras por keyset de OrderRepository, sobre tb_orders_archive
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from ArchivedOrder o
+            where o.id in :ids
+            """)
+    List<OrderResponseDTO> findResponsesByIdIn(Collection<UUID> ids);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from ArchivedOrder o
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findFirstPage(Limit limit);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from ArchivedOrder o
+            where (o.createdAt, o.id) < (:createdAt, :id)
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findPageAfter(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from ArchivedOrder o
+            where o.status = :status
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findFirstPageByStatus(OrderStatus status, Limit limit);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from ArchivedOrder o
+            where o.status = :status
+              and (o.status, o.createdAt, o.id) < (:status, :createdAt, :id)
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findPageByStatusAfter(OrderStatus status, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Move um lote numa única instrução: o DELETE e o INSERT acontecem juntos ou não acontecem.
+    // A subconsulta usa idx_orders_status_created_at_id e, particionada, só visita os meses antigos;
+    // SKIP LOCKED deixa passar pedidos sendo alterados agora (entram no próximo ciclo)
+    @Query(value = """
+            with moved as (
+                delete from tb_orders o
+                where (o.id, o.created_at) in (
+                    select id, created_at from tb_orders
+                    where status in (:statuses) and created_at < :cutoff
+                    order by created_at
+                    limit :limit
+                    for update skip locked
+                )
+                returning o.id, o.customer_name, o.amount, o.status, o.created_at, o.version
+            )
+            insert into tb_orders_archive (id, customer_name, amount, status, created_at, version, archived_at)
+            select id, customer_name, amount, status, created_at, version, localtimestamp from moved
+            returning id as "id", customer_name as "customerName", amount as "amount", status as "status",
+                      created_at as "createdAt"
+            """, nativeQuery = true)
+    List<ArchivedOrderRow> archive(Collection<String> statuses, LocalDateTime cutoff, int limit);
+}
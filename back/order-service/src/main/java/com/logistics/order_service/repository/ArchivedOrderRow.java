@@ -0,0 +1,26 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Linha devolvida pelo arquivamento: o pedido como entrou em tb_orders_archive
+public interface ArchivedOrderRow {
+
+    UUID getId();
+
+    String getCustomerName();
+
+    BigDecimal getAmount();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    default OrderResponseDTO toResponse() {
+        return new OrderResponseDTO(getId(), getCustomerName(), getAmount(), OrderStatus.valueOf(getStatus()), getCreatedAt());
+    }
+}
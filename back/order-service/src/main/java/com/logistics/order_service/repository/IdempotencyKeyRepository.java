@@ -0,0 +1,50 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // 1 = chave reservada por esta transação; 0 = já existia. Com outra transação gravando a mesma chave,
+    // o Postgres espera ela terminar antes de responder, então o 0 sempre vem com o pedido já commitado
+    @Modifying
+    @Query(value = """
+            insert into tb_order_idempotency_keys (idempotency_key, request_hash, created_at)
+            values (:key, :requestHash, localtimestamp)
+            on conflict (idempotency_key) do nothing
+            """, nativeQuery = true)
+    int claim(String key, String requestHash);
+
+    @Modifying
+    @Query(value = "update tb_order_idempotency_keys set order_id = :orderId where idempotency_key = :key",
+            nativeQuery = true)
+    int complete(String key, UUID orderId);
+
+    // O pedido pode ter sido arquivado enquanto a chave ainda vale (orders.archive.older-than e
+    // orders.idempotency.retention são independentes): procura em tb_orders e, só se faltar, no arquivo
+    @Query(value = """
+            select k.request_hash as "requestHash", o.id as "id", o.customer_name as "customerName",
+                   o.amount as "amount", o.status as "status", o.created_at as "createdAt"
+            from tb_order_idempotency_keys k
+            cross join lateral (
+                select id, customer_name, amount, status, created_at from tb_orders where id = k.order_id
+                union all
+                select id, customer_name, amount, status, created_at from tb_orders_archive where id = k.order_id
+                limit 1
+            ) o
+            where k.idempotency_key = :key
+            """, nativeQuery = true)
+    Optional<IdempotentOrder> findOrder(String key);
+
+    @Modifying
+    @Query(value = "delete from tb_order_idempotency_keys where created_at < :cutoff", nativeQuery = true)
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
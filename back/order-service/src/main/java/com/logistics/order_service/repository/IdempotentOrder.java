@@ -0,0 +1,28 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Pedido criado por uma Idempotency-Key, junto com a impressão digital da requisição original
+public interface IdempotentOrder {
+
+    String getRequestHash();
+
+    UUID getId();
+
+    String getCustomerName();
+
+    BigDecimal getAmount();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    default OrderResponseDTO toResponse() {
+        return new OrderResponseDTO(getId(), getCustomerName(), getAmount(), OrderStatus.valueOf(getStatus()), getCreatedAt());
+    }
+}
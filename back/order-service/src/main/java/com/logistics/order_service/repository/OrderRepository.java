@@ -1,14 +1,130 @@
 package com.logistics.order_service.repository;
 
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
 import com.logistics.order_service.domain.entity.Order;
 import com.logistics.order_service.domain.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
-    List<Order> findAllByStatus(OrderStatus status);
+
+    // Leituras projetam direto no DTO: sem entidades gerenciadas nem snapshot de dirty checking.
+    // Carrega em lote os ids que chegaram juntos (ver OrderBatchLoader)
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            where o.id in :ids
+            """)
+    List<OrderResponseDTO> findResponsesByIdIn(Collection<UUID> ids);
+
+    // Paginação por keyset em (createdAt, id): sem OFFSET, e a comparação de tupla vira Index Cond (seek)
+    // em vez de filtro sobre o índice inteiro
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findFirstPage(Limit limit);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            where (o.createdAt, o.id) < (:createdAt, :id)
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findPageAfter(LocalDateTime createdAt, UUID id, Limit limit);
+
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            where o.status = :status
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findFirstPageByStatus(OrderStatus status, Limit limit);
+
+    // A tupla inclui o status para o seek acontecer inteiro dentro de idx_orders_status_created_at_id
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            where o.status = :status
+              and (o.status, o.createdAt, o.id) < (:status, :createdAt, :id)
+            order by o.createdAt desc, o.id desc
+            """)
+    List<OrderResponseDTO> findPageByStatusAfter(OrderStatus status, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Transição em massa num único UPDATE; RETURNING devolve só as linhas que de fato mudaram,
+    // junto com o status anterior (lido e travado na CTE) para as estatísticas.
+    // Trava em ordem de id: dois lotes com ids em comum esperam um pelo outro em vez de entrar em deadlock
+    @Query(value = """
+            with previous as (
+                select id, status from tb_orders
+                where id in (:ids) and status in (:currentStatuses)
+                order by id
+                for update
+            )
+            update tb_orders o
+            set status = :newStatus, version = o.version + 1
+            from previous p
+            where o.id = p.id
+            returning o.id as "id", o.customer_name as "customerName", o.amount as "amount", o.status as "status",
+                      o.created_at as "createdAt", p.status as "previousStatus"
+            """, nativeQuery = true)
+    List<OrderStatusTransition> transitionStatus(Collection<UUID> ids, String newStatus, Collection<String> currentStatuses);
+
+    // Separa, entre os ids que a transição em massa não mudou, os que existem (ativos ou arquivados) dos inexistentes
+    @Query(value = """
+            select id from tb_orders where id in (:ids)
+            union all
+            select id from tb_orders_archive where id in (:ids)
+            """, nativeQuery = true)
+    List<UUID> findExistingIds(Collection<UUID> ids);
+
+    // Usado só na reconciliação das estatísticas, nunca no caminho de leitura
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO(
+                o.status, count(o), sum(o.amount))
+            from Order o
+            group by o.status
+            """)
+    List<OrderStatusStatsDTO> sumByStatus();
+
+    // Primeiro comando da transação de reconciliação: em REPEATABLE READ fixa o snapshot usado pelo sumByStatus
+    @Query(value = "select pg_current_snapshot()::text", nativeQuery = true)
+    String currentSnapshot();
+
+    // Streaming via cursor JDBC: projeta direto no DTO para não acumular entidades no contexto de persistência
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            """)
+    Stream<OrderResponseDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.logistics.order_service.domain.dto.response.OrderResponseDTO(
+                o.id, o.customerName, o.amount, o.status, o.createdAt)
+            from Order o
+            where o.status = :status
+            """)
+    Stream<OrderResponseDTO> streamAllByStatus(OrderStatus status);
 }
@@ -0,0 +1,28 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Linha devolvida pela transição em massa: o pedido já atualizado e o status que ele tinha antes
+public interface OrderStatusTransition {
+
+    UUID getId();
+
+    String getCustomerName();
+
+    BigDecimal getAmount();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    String getPreviousStatus();
+
+    default OrderResponseDTO toResponse() {
+        return new OrderResponseDTO(getId(), getCustomerName(), getAmount(), OrderStatus.valueOf(getStatus()), getCreatedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Reserva o próximo lote numa instrução: SKIP LOCKED permite várias réplicas drenando a outbox sem disputar as
+    // mesmas linhas, e claimed_until as mantém fora dos outros relays depois do commit, enquanto este publica.
+    // Só entra o evento mais antigo de cada pedido: os seguintes esperam ele ser confirmado e apagado, seja qual for
+    // o relay que o reservou, e um evento que falhou volta antes dos posteriores do mesmo pedido.
+    // Os locks só duram a transação curta da reserva; a ordem de retorno não é garantida
+    @Query(value = """
+            update tb_order_outbox set claimed_until = localtimestamp + make_interval(secs => :leaseSeconds)
+            where id in (
+                select o.id from tb_order_outbox o
+                where (o.claimed_until is null or o.claimed_until < localtimestamp)
+                  and not exists (
+                      select 1 from tb_order_outbox earlier
+                      where earlier.aggregate_id = o.aggregate_id and earlier.sequence_number < o.sequence_number
+                  )
+                order by o.sequence_number
+                limit :limit
+                for update skip locked
+            )
+            returning *
+            """, nativeQuery = true)
+    List<OutboxEvent> claimNextBatch(int limit, double leaseSeconds);
+
+    // Sem confirmação: devolve os eventos para o próximo ciclo em vez de esperar a reserva vencer
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedUntil = null where e.id in :ids")
+    int releaseClaims(Collection<Long> ids);
+}
@@ -1,26 +1,75 @@
 package com.logistics.order_service.service;
 
+import com.logistics.order_service.domain.dto.request.BulkUpdateOrderStatusDTO;
 import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
+import com.logistics.order_service.domain.dto.request.OrderCursor;
 import com.logistics.order_service.domain.dto.request.UpdateOrderDTO;
+import com.logistics.order_service.domain.dto.response.BulkCreateOrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.BulkOrderItemResultDTO;
+import com.logistics.order_service.domain.dto.response.BulkUpdateOrderStatusResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderPageDTO;
 import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatsDTO;
 import com.logistics.order_service.domain.entity.Order;
 import com.logistics.order_service.domain.enums.OrderStatus;
-import com.logistics.order_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.infra.cache.OrderBatchLoader;
+import com.logistics.order_service.infra.cache.OrderCache;
+import com.logistics.order_service.infra.idempotency.IdempotencyKeyStore;
+import com.logistics.order_service.infra.messaging.outbox.OrderOutbox;
+import com.logistics.order_service.infra.stats.OrderStats;
+import com.logistics.order_service.repository.ArchivedOrderRepository;
+import com.logistics.order_service.repository.ArchivedOrderRow;
 import com.logistics.order_service.repository.OrderRepository;
+import com.logistics.order_service.repository.OrderStatusTransition;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BULK_SIZE = 5_000;
+
+    private static final List<String> ARCHIVABLE_STATUSES =
+            List.of(OrderStatus.COMPLETED.name(), OrderStatus.CANCELED.name());
+
+    // Mesma ordem do "order by created_at desc, id desc" do Postgres, que compara uuid byte a byte (sem sinal)
+    private static final Comparator<OrderResponseDTO> NEWEST_FIRST = Comparator
+            .comparing(OrderResponseDTO::createdAt)
+            .thenComparing(OrderResponseDTO::id, (a, b) -> {
+                int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+                return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+            })
+            .reversed();
+
     private final OrderRepository orderRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderOutbox orderOutbox;
+    private final OrderCache orderCache;
+    private final OrderBatchLoader orderBatchLoader;
+    private final OrderStats orderStats;
+    private final IdempotencyKeyStore idempotencyKeys;
+    private final Validator validator;
 
     @Transactional
     public OrderResponseDTO create(CreateOrderDTO dto) {
@@ -29,11 +78,70 @@ public class OrderService {
 
         OrderResponseDTO response = OrderResponseDTO.from(savedOrder);
 
-        rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_EVENTS_QUEUE, response);
+        orderOutbox.append(response);
+        orderCache.put(response);
+        orderStats.recordCreated(List.of(response));
 
         return response;
     }
 
+    // Caminho rápido das repetições: sem transação, normalmente respondido pelo cache
+    public Optional<OrderResponseDTO> findCreated(String idempotencyKey, CreateOrderDTO dto) {
+        idempotencyKeys.validate(idempotencyKey);
+        return idempotencyKeys.find(idempotencyKey, idempotencyKeys.requestHash(dto));
+    }
+
+    // A chave é reservada antes de gravar o pedido: quem perde a corrida devolve o pedido de quem ganhou
+    @Transactional
+    public OrderResponseDTO create(CreateOrderDTO dto, String idempotencyKey) {
+        idempotencyKeys.validate(idempotencyKey);
+        String requestHash = idempotencyKeys.requestHash(dto);
+        if (!idempotencyKeys.claim(idempotencyKey, requestHash)) {
+            return idempotencyKeys.find(idempotencyKey, requestHash)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency-Key reservada sem pedido associado"));
+        }
+
+        OrderResponseDTO response = create(dto);
+        idempotencyKeys.complete(idempotencyKey, requestHash, response);
+        return response;
+    }
+
+    // Valida item a item e persiste os válidos em lote (JDBC batch) numa única transação
+    @Transactional
+    public BulkCreateOrderResponseDTO createAll(List<CreateOrderDTO> dtos) {
+        if (dtos.isEmpty() || dtos.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("O lote deve conter entre 1 e " + MAX_BULK_SIZE + " pedidos");
+        }
+
+        BulkOrderItemResultDTO[] results = new BulkOrderItemResultDTO[dtos.size()];
+        List<Integer> validIndexes = new ArrayList<>(dtos.size());
+        List<Order> orders = new ArrayList<>(dtos.size());
+
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateOrderDTO dto = dtos.get(i);
+            String error = validarItem(dto);
+
+            if (error != null) {
+                results[i] = BulkOrderItemResultDTO.rejected(i, error);
+            } else {
+                validIndexes.add(i);
+                orders.add(Order.builder().customerName(dto.customerName()).amount(dto.amount()).build());
+            }
+        }
+
+        List<OrderResponseDTO> created = orderRepository.saveAll(orders).stream().map(OrderResponseDTO::from).toList();
+        orderOutbox.appendAll(created);
+        orderCache.putAll(created);
+        orderStats.recordCreated(created);
+
+        for (int i = 0; i < created.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = BulkOrderItemResultDTO.created(index, created.get(i));
+        }
+
+        return new BulkCreateOrderResponseDTO(created.size(), dtos.size() - created.size(), List.of(results));
+    }
+
     @Transactional
     public OrderResponseDTO update(UUID orderId, UpdateOrderDTO dto) {
         Order order = orderRepository.findById(orderId)
@@ -56,27 +164,182 @@ public class OrderService {
         order.setStatus(newStatus);
         OrderResponseDTO response = OrderResponseDTO.from(orderRepository.save(order));
 
-        rabbitTemplate.convertAndSend(RabbitMQConfig.ORDER_EVENTS_QUEUE, response);
+        orderOutbox.append(currentStatus, response);
+        orderCache.put(response);
+        orderStats.recordTransition(currentStatus, response);
 
         return response;
     }
 
-    @Transactional(readOnly = true)
+    // Aplica a mesma regra de validarStatus de forma set-based: só avançam pedidos em status anteriores ao novo
+    @Transactional
+    public BulkUpdateOrderStatusResponseDTO updateAll(BulkUpdateOrderStatusDTO dto) {
+        Set<UUID> ids = new LinkedHashSet<>(dto.ids());
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("O lote deve conter entre 1 e " + MAX_BULK_SIZE + " pedidos");
+        }
+
+        OrderStatus newStatus = dto.status();
+        List<String> currentStatuses = Arrays.stream(OrderStatus.values())
+                .filter(status -> status.ordinal() < newStatus.ordinal())
+                .filter(status -> status != OrderStatus.CANCELED && status != OrderStatus.COMPLETED)
+                .map(OrderStatus::name)
+                .toList();
+
+        List<OrderStats.Transition> transitions = (currentStatuses.isEmpty()
+                ? List.<OrderStatusTransition>of()
+                : orderRepository.transitionStatus(ids, newStatus.name(), currentStatuses))
+                .stream()
+                .map(transition -> new OrderStats.Transition(
+                        OrderStatus.valueOf(transition.getPreviousStatus()), transition.toResponse()))
+                .toList();
+        List<OrderResponseDTO> updated = transitions.stream().map(OrderStats.Transition::order).toList();
+
+        orderOutbox.appendTransitions(transitions);
+        orderCache.putAll(updated);
+        orderStats.recordTransitions(transitions);
+
+        updated.forEach(order -> ids.remove(order.id()));
+        if (ids.isEmpty()) {
+            return new BulkUpdateOrderStatusResponseDTO(updated.size(), updated, List.of(), List.of());
+        }
+
+        // Só os que não mudaram: um erro de digitação (inexistente) é diferente de um conflito de status
+        Set<UUID> existing = new HashSet<>(orderRepository.findExistingIds(ids));
+        Map<Boolean, List<UUID>> skipped = ids.stream().collect(Collectors.partitioningBy(existing::contains));
+        return new BulkUpdateOrderStatusResponseDTO(updated.size(), updated, skipped.get(false), skipped.get(true));
+    }
+
+    // Sem @Transactional: um acerto no cache não precisa abrir transação nem pegar conexão do pool.
+    // Na falta, leituras do mesmo id dividem uma busca e ids distintos seguem juntos num único IN
     public OrderResponseDTO findById(UUID orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
+        return orderCache.get(orderId, orderBatchLoader::load);
+    }
 
-        return OrderResponseDTO.from(order);
+    // O arquivo só é consultado quando pedido; um pedido nunca está nas duas tabelas
+    public OrderResponseDTO findById(UUID orderId, boolean archived) {
+        if (archived) {
+            List<OrderResponseDTO> found = archivedOrderRepository.findResponsesByIdIn(List.of(orderId));
+            if (!found.isEmpty()) {
+                return found.getFirst();
+            }
+        }
+        return findById(orderId);
     }
 
-    @Transactional(readOnly = true)
-    public List<OrderResponseDTO> findAll() {
-        return orderRepository.findAll().stream().map(OrderResponseDTO::from).toList();
+    public OrderPageDTO findAll(String cursor, int size, boolean archived) {
+        validarTamanhoPagina(size);
+        // Busca um item a mais para saber se existe próxima página
+        Limit limit = Limit.of(size + 1);
+        OrderCursor position = cursor != null ? OrderCursor.decode(cursor) : null;
+
+        List<OrderResponseDTO> orders = position == null
+                ? orderRepository.findFirstPage(limit)
+                : orderRepository.findPageAfter(position.createdAt(), position.id(), limit);
+        if (archived) {
+            orders = merge(orders, position == null
+                    ? archivedOrderRepository.findFirstPage(limit)
+                    : archivedOrderRepository.findPageAfter(position.createdAt(), position.id(), limit), size + 1);
+        }
+
+        return toPage(orders, size);
+    }
+
+    public OrderStatsDTO stats() {
+        return orderStats.snapshot();
+    }
+
+    public OrderPageDTO findByStatus(OrderStatus status, String cursor, int size, boolean archived) {
+        validarTamanhoPagina(size);
+        // Só status terminais chegam ao arquivo
+        boolean includeArchive = archived && (status == OrderStatus.COMPLETED || status == OrderStatus.CANCELED);
+        return orderCache.getPage(status, includeArchive, cursor, size,
+                () -> loadPageByStatus(status, cursor, size, includeArchive));
+    }
+
+    // Um lote do arquivamento: move, tira do cache e das estatísticas (ver OrderArchiver).
+    // Não grava evento na outbox (o notification-service reenviaria o status final), então só esta réplica fica
+    // sabendo: nas outras o pedido ainda sai do cache por id até orders.cache.ttl e conta nas estatísticas até a
+    // próxima reconciliação. Como só pedidos terminais são arquivados, o conteúdo devolvido é o mesmo do arquivo
+    @Transactional
+    public int archive(LocalDateTime cutoff, int batchSize) {
+        List<OrderResponseDTO> archived = archivedOrderRepository.archive(ARCHIVABLE_STATUSES, cutoff, batchSize)
+                .stream()
+                .map(ArchivedOrderRow::toResponse)
+                .toList();
+
+        orderCache.evictAll(archived.stream().map(OrderResponseDTO::id).toList());
+        orderStats.recordArchived(archived);
+        return archived.size();
     }
 
+    // Percorre a tabela inteira por cursor JDBC, entregando uma linha por vez ao consumidor
     @Transactional(readOnly = true)
-    public List<OrderResponseDTO> findByStatus(OrderStatus status) {
-        return orderRepository.findAllByStatus(status).stream().map(OrderResponseDTO::from).toList();
+    public void streamAll(OrderStatus status, Consumer<OrderResponseDTO> consumer) {
+        try (Stream<OrderResponseDTO> orders = status == null
+                ? orderRepository.streamAll()
+                : orderRepository.streamAllByStatus(status)) {
+            orders.forEach(consumer);
+        }
+    }
+
+    private OrderPageDTO loadPageByStatus(OrderStatus status, String cursor, int size, boolean archived) {
+        Limit limit = Limit.of(size + 1);
+        OrderCursor position = cursor != null ? OrderCursor.decode(cursor) : null;
+
+        List<OrderResponseDTO> orders = position == null
+                ? orderRepository.findFirstPageByStatus(status, limit)
+                : orderRepository.findPageByStatusAfter(status, position.createdAt(), position.id(), limit);
+        if (archived) {
+            orders = merge(orders, position == null
+                    ? archivedOrderRepository.findFirstPageByStatus(status, limit)
+                    : archivedOrderRepository.findPageByStatusAfter(status, position.createdAt(), position.id(), limit),
+                    size + 1);
+        }
+
+        return toPage(orders, size);
+    }
+
+    // As duas listas já vêm na ordem do keyset; junta e corta no tamanho da página
+    private static List<OrderResponseDTO> merge(List<OrderResponseDTO> active, List<OrderResponseDTO> archived, int limit) {
+        if (archived.isEmpty()) {
+            return active;
+        }
+        return Stream.concat(active.stream(), archived.stream())
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    private OrderPageDTO toPage(List<OrderResponseDTO> orders, int size) {
+        if (orders.size() <= size) {
+            return new OrderPageDTO(orders, null);
+        }
+
+        List<OrderResponseDTO> content = List.copyOf(orders.subList(0, size));
+        OrderResponseDTO last = content.getLast();
+        return new OrderPageDTO(content, new OrderCursor(last.createdAt(), last.id()).encode());
+    }
+
+    private String validarItem(CreateOrderDTO dto) {
+        if (dto == null) {
+            return "O pedido não pode ser vazio";
+        }
+
+        Set<ConstraintViolation<CreateOrderDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.joining(", "));
+    }
+
+    private void validarTamanhoPagina(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
     }
 
     private void validarStatus(OrderStatus atual, OrderStatus novo) {
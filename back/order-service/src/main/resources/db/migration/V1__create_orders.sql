@@ -0,0 +1,18 @@
+-- "if not exists" permite aplicar sobre bancos criados antes pelo ddl-auto (baseline-version 0)
+create table if not exists tb_orders (
+    id            uuid           not null primary key,
+    customer_name varchar(255),
+    amount        numeric(38, 2),
+    status        varchar(255),
+    created_at    timestamp(6),
+    version       bigint         not null default 0
+);
+
+-- Nesses bancos a tabela já existia sem a coluna do @Version; os pedidos antigos começam na versão 0
+alter table tb_orders add column if not exists version bigint not null default 0;
+
+-- Keyset da listagem geral: order by created_at desc, id desc
+create index if not exists idx_orders_created_at_id on tb_orders (created_at, id);
+
+-- Filtro por status + keyset; o prefixo (status) também atende as consultas só por status
+create index if not exists idx_orders_status_created_at_id on tb_orders (status, created_at, id);
@@ -0,0 +1,9 @@
+create sequence if not exists tb_order_outbox_seq start with 1 increment by 50;
+
+create table if not exists tb_order_outbox (
+    id           bigint       not null primary key,
+    aggregate_id uuid,
+    content_type varchar(255),
+    payload      bytea        not null,
+    created_at   timestamp(6)
+);
@@ -0,0 +1,2 @@
+-- Id de correlação da requisição que gerou o evento, repassado no header AMQP
+alter table tb_order_outbox add column if not exists correlation_id varchar(64);
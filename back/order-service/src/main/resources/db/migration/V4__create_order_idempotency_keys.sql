@@ -0,0 +1,11 @@
+-- Idempotency-Key do POST /orders: a chave primária é o índice único que decide quem cria o pedido.
+-- order_id fica nulo só dentro da transação que reservou a chave
+create table if not exists tb_order_idempotency_keys (
+    idempotency_key varchar(128) not null primary key,
+    request_hash    varchar(64)  not null,
+    order_id        uuid references tb_orders (id),
+    created_at      timestamp(6) not null
+);
+
+-- Expurgo das chaves vencidas por faixa de data
+create index if not exists idx_order_idempotency_keys_created_at on tb_order_idempotency_keys (created_at);
@@ -0,0 +1,97 @@
+-- Pedidos COMPLETED/CANCELED antigos movidos pelo OrderArchiver; lidos só quando a API pede (archived=true)
+create table if not exists tb_orders_archive (
+    id            uuid           not null primary key,
+    customer_name varchar(255),
+    amount        numeric(38, 2),
+    status        varchar(255),
+    created_at    timestamp(6),
+    version       bigint         not null default 0,
+    archived_at   timestamp(6)   not null
+);
+
+create index if not exists idx_orders_archive_created_at_id on tb_orders_archive (created_at, id);
+create index if not exists idx_orders_archive_status_created_at_id on tb_orders_archive (status, created_at, id);
+
+-- Sem FK para tb_orders: particionada, ela não tem unicidade só no id, e um pedido arquivado sai dela
+-- enquanto a chave ainda pode valer (retenção e arquivamento são independentes; o findOrder olha as duas tabelas)
+alter table tb_order_idempotency_keys drop constraint if exists tb_order_idempotency_keys_order_id_fkey;
+
+-- Cria (se faltar) a partição mensal de tb_orders que contém o dia informado. Linhas do mês que tenham
+-- caído na partição default são movidas para ela. Sem efeito enquanto tb_orders não for particionada
+create or replace function orders_ensure_month_partition(day date) returns void
+language plpgsql as $$
+declare
+    first_day date := date_trunc('month', day);
+    next_month date := date_trunc('month', day) + interval '1 month';
+    partition_name text := 'tb_orders_' || to_char(date_trunc('month', day), '"y"YYYY"m"MM');
+begin
+    if not exists (select 1 from pg_partitioned_table where partrelid = 'tb_orders'::regclass)
+            or to_regclass(partition_name) is not null then
+        return;
+    end if;
+
+    execute format('create table %I (like tb_orders including defaults)', partition_name);
+    execute format('with moved as (delete from tb_orders_default where created_at >= %L and created_at < %L returning *) '
+                   'insert into %I select * from moved', first_day, next_month, partition_name);
+    execute format('alter table tb_orders attach partition %I for values from (%L) to (%L)',
+                   partition_name, first_day, next_month);
+end
+$$;
+
+-- Converte tb_orders em tabela particionada por mês de created_at (modo orders.storage.partitioned).
+-- Reescreve a tabela inteira sob lock exclusivo: roda uma vez, com a aplicação subindo. Idempotente
+create or replace function orders_partition_by_month(months_ahead int) returns void
+language plpgsql as $$
+declare
+    pk_name text;
+    month date;
+begin
+    -- Várias réplicas subindo juntas: só a primeira converte
+    perform pg_advisory_xact_lock(hashtext('orders_partition_by_month'));
+    if exists (select 1 from pg_partitioned_table where partrelid = 'tb_orders'::regclass) then
+        return;
+    end if;
+
+    lock table tb_orders in access exclusive mode;
+
+    -- Libera os nomes de tabela, chave e índices para a nova tabela-mãe
+    alter table tb_orders rename to tb_orders_unpartitioned;
+    select conname into pk_name from pg_constraint
+    where conrelid = 'tb_orders_unpartitioned'::regclass and contype = 'p';
+    execute format('alter table tb_orders_unpartitioned rename constraint %I to tb_orders_unpartitioned_pkey', pk_name);
+    alter index if exists idx_orders_created_at_id rename to idx_orders_unpartitioned_created_at_id;
+    alter index if exists idx_orders_status_created_at_id rename to idx_orders_unpartitioned_status_created_at_id;
+
+    -- A chave de partição precisa fazer parte da chave primária
+    create table tb_orders (
+        id            uuid           not null,
+        customer_name varchar(255),
+        amount        numeric(38, 2),
+        status        varchar(255),
+        created_at    timestamp(6)   not null,
+        version       bigint         not null default 0,
+        primary key (id, created_at)
+    ) partition by range (created_at);
+
+    create index idx_orders_created_at_id on tb_orders (created_at, id);
+    create index idx_orders_status_created_at_id on tb_orders (status, created_at, id);
+    -- Rede de segurança para datas sem partição; a manutenção periódica a mantém vazia
+    create table tb_orders_default partition of tb_orders default;
+
+    for month in
+        select generate_series(
+            (select date_trunc('month', coalesce(min(created_at), localtimestamp)) from tb_orders_unpartitioned),
+            date_trunc('month', localtimestamp) + make_interval(months => months_ahead),
+            interval '1 month')::date
+    loop
+        perform orders_ensure_month_partition(month);
+    end loop;
+
+    insert into tb_orders (id, customer_name, amount, status, created_at, version)
+    select id, customer_name, amount, status, coalesce(created_at, localtimestamp), version
+    from tb_orders_unpartitioned;
+
+    drop table tb_orders_unpartitioned;
+    analyze tb_orders;
+end
+$$;
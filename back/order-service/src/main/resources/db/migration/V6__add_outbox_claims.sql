@@ -0,0 +1,15 @@
+-- Reserva do lote pelo relay: as linhas são marcadas numa transação curta e publicadas fora dela.
+-- Até claimed_until vencer nenhuma outra réplica pega o mesmo evento; se o relay cair, o lote volta sozinho
+alter table tb_order_outbox add column if not exists claimed_until timestamp(6);
+
+-- Ordem de gravação atribuída pelo banco na inserção; o id vem em blocos por réplica (allocationSize) e não serve.
+-- Duas escritas do mesmo pedido são serializadas pelo lock (ou pela versão) da linha em tb_orders e a segunda só
+-- insere o evento depois do commit da primeira, então sequence_number cresce na ordem dos eventos de cada pedido
+create sequence if not exists tb_order_outbox_sequence_number_seq;
+alter table tb_order_outbox add column if not exists sequence_number bigint not null
+    default nextval('tb_order_outbox_sequence_number_seq');
+alter sequence tb_order_outbox_sequence_number_seq owned by tb_order_outbox.sequence_number;
+
+-- Reserva: só o evento mais antigo de cada pedido ainda na outbox
+create index if not exists idx_order_outbox_aggregate_sequence on tb_order_outbox (aggregate_id, sequence_number);
+create index if not exists idx_order_outbox_sequence on tb_order_outbox (sequence_number);
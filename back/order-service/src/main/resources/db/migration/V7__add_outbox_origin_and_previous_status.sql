@@ -0,0 +1,8 @@
+-- Réplica que gravou o evento e status anterior do pedido (nulo na criação), repassados em headers AMQP:
+-- as outras réplicas aplicam a escrita nas estatísticas em memória ao receber o evento pelo fanout
+alter table tb_order_outbox add column if not exists origin varchar(64);
+alter table tb_order_outbox add column if not exists previous_status varchar(255);
+
+-- Transação que gravou o evento (a mesma do pedido): comparada ao snapshot da reconciliação, diz se a escrita
+-- já estava nos totais lidos da base
+alter table tb_order_outbox add column if not exists xact_id bigint default (pg_current_xact_id()::text::bigint);
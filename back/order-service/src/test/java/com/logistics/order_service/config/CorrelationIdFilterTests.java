@@ -0,0 +1,41 @@
+package com.logistics.order_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTests {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void propagatesIncomingIdToMdcAndResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(CorrelationIdFilter.HEADER, "req-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+
+        assertThat(seen.get()).isEqualTo("req-123");
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("req-123");
+        // A thread volta para o pool sem o id da requisição anterior
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void replacesMissingOrUnsafeIdWithGeneratedOne() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(CorrelationIdFilter.HEADER, "x\r\nInjected: 1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).hasSize(36).doesNotContain("Injected");
+    }
+}
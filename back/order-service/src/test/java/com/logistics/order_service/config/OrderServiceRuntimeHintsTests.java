@@ -0,0 +1,46 @@
+package com.logistics.order_service.config;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.OrderStatusTransition;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderServiceRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    OrderServiceRuntimeHintsTests() {
+        new OrderServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void eventRecordFieldsAreReachableForTheAnyVisibilityMapper() throws NoSuchFieldException {
+        assertThat(RuntimeHintsPredicates.reflection().onFieldAccess(OrderResponseDTO.class.getDeclaredField("customerName")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onFieldAccess(OrderStatus.class.getField("SHIPPED")))
+                .accepts(hints);
+    }
+
+    @Test
+    void jpqlConstructorExpressionsCanInstantiateTheDtos() throws NoSuchMethodException {
+        assertThat(RuntimeHintsPredicates.reflection().onConstructorInvocation(OrderResponseDTO.class.getDeclaredConstructor(
+                UUID.class, String.class, BigDecimal.class, OrderStatus.class, LocalDateTime.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onConstructorInvocation(OrderStatusStatsDTO.class.getDeclaredConstructors()[0]))
+                .accepts(hints);
+    }
+
+    @Test
+    void projectionDefaultMethodsAreInvocable() {
+        assertThat(RuntimeHintsPredicates.reflection().onMethodInvocation(OrderStatusTransition.class, "toResponse"))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,81 @@
+package com.logistics.order_service.infra.admission;
+
+import com.logistics.order_service.config.WebConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.CorsFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteAdmissionFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WriteConcurrencyLimiter limiter = new WriteConcurrencyLimiter(meterRegistry, 1, 1, 10, 2.0, 0.9);
+    private final WriteAdmissionFilter filter = new WriteAdmissionFilter(limiter, JsonMapper.builder().build(),
+            Duration.ofMillis(1500));
+
+    @Test
+    void writesAboveTheLimitGet429WithRetryAfterWithoutReachingTheController() throws Exception {
+        limiter.tryAcquire();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean reached = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/orders"), response, (req, res) -> reached.set(true));
+
+        assertThat(reached).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"status\":429");
+    }
+
+    @Test
+    void rejectionOfACrossOriginWriteCarriesTheCorsHeaders() throws Exception {
+        limiter.tryAcquire();
+        FilterRegistrationBean<CorsFilter> cors = new WebConfig().corsFilter();
+        assertThat(cors.getOrder()).isLessThan(OrderUtils.getOrder(WriteAdmissionFilter.class, Ordered.LOWEST_PRECEDENCE));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/orders");
+        request.addHeader(HttpHeaders.ORIGIN, "https://dashboard.example.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Mesma sequência do servidor: CORS e depois a admissão
+        new MockFilterChain(new HttpServlet() {
+        }, cors.getFilter(), filter).doFilter(request, response);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN)).isEqualTo("https://dashboard.example.com");
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS)).contains(HttpHeaders.RETRY_AFTER);
+    }
+
+    @Test
+    void readsBypassTheLimiter() throws Exception {
+        limiter.tryAcquire();
+        AtomicBoolean reached = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), new MockHttpServletResponse(),
+                (req, res) -> reached.set(true));
+
+        assertThat(reached).isTrue();
+    }
+
+    @Test
+    void saturationResponsesReleaseThePermitAsADrop() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("PATCH", "/orders/42/status"), new MockHttpServletResponse(),
+                (req, res) -> ((HttpServletResponse) res).setStatus(503));
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(meterRegistry.get("orders.admission.dropped").counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.logistics.order_service.infra.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WriteConcurrencyLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsAboveTheLimitWithoutQueueing() {
+        WriteConcurrencyLimiter limiter = limiter(4);
+        acquire(limiter, 4);
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("orders.admission.rejected").counter().count()).isEqualTo(1);
+
+        limiter.onIgnored();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(meterRegistry.get("orders.admission.inflight").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void growsByOneWhenTheWindowStaysNearTheBaseline() {
+        WriteConcurrencyLimiter limiter = limiter(10);
+
+        window(limiter, 10, 1);
+
+        assertThat(limiter.limit()).isEqualTo(11);
+        assertThat(meterRegistry.get("orders.admission.limit").gauge().value()).isEqualTo(11);
+    }
+
+    @Test
+    void backsOffWhenTheWindowAverageQueuesBehindTheBaseline() {
+        WriteConcurrencyLimiter limiter = limiter(10);
+        window(limiter, 10, 1);
+
+        window(limiter, 11, 5);
+
+        assertThat(limiter.limit()).isEqualTo(9);
+    }
+
+    @Test
+    void doesNotGrowWhileMostOfTheLimitIsIdle() {
+        WriteConcurrencyLimiter limiter = limiter(10);
+
+        for (int i = 0; i < 10; i++) {
+            window(limiter, 1, 1);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void aBurstOfDropsShrinksTheLimitOncePerWindow() {
+        WriteConcurrencyLimiter limiter = limiter(20);
+        acquire(limiter, 20);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.onDropped();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(18);
+        assertThat(limiter.inFlight()).isEqualTo(15);
+        assertThat(meterRegistry.get("orders.admission.dropped").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void neverShrinksBelowTheMinimum() {
+        WriteConcurrencyLimiter limiter = new WriteConcurrencyLimiter(meterRegistry, 4, 4, 100, 2.0, 0.5);
+        acquire(limiter, 4);
+
+        limiter.onDropped();
+
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    private WriteConcurrencyLimiter limiter(int initialLimit) {
+        return new WriteConcurrencyLimiter(meterRegistry, initialLimit, 1, 100, 2.0, 0.9);
+    }
+
+    // Admite todas antes de liberar: a janela vê o limite em uso
+    private static void window(WriteConcurrencyLimiter limiter, int requests, long latencyMillis) {
+        acquire(limiter, requests);
+        for (int i = 0; i < requests; i++) {
+            limiter.onSuccess(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+
+    private static void acquire(WriteConcurrencyLimiter limiter, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.logistics.order_service.infra.cache;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.OrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchLoaderTests {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderBatchLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        loader.shutdown();
+    }
+
+    @Test
+    void idsRequestedInsideTheWindowShareOneQuery() {
+        loader = new OrderBatchLoader(orderRepository, meterRegistry, Duration.ofMillis(50), 100);
+        List<UUID> ids = IntStream.range(0, 10).mapToObj(i -> UUID.randomUUID()).toList();
+        answerWithOrdersFor();
+
+        List<CompletableFuture<OrderResponseDTO>> futures = ids.stream().map(loader::load).toList();
+
+        assertThat(futures.stream().map(CompletableFuture::join).map(OrderResponseDTO::id)).containsExactlyElementsOf(ids);
+        verify(orderRepository, times(1)).findResponsesByIdIn(any());
+        assertThat(meterRegistry.get("orders.read.batch.size").summary().max()).isEqualTo(10);
+    }
+
+    @Test
+    void sameIdPendingInTheWindowIsQueriedOnce() {
+        loader = new OrderBatchLoader(orderRepository, meterRegistry, Duration.ofMillis(50), 100);
+        UUID id = UUID.randomUUID();
+        answerWithOrdersFor();
+
+        CompletableFuture<OrderResponseDTO> first = loader.load(id);
+        CompletableFuture<OrderResponseDTO> second = loader.load(id);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.join().id()).isEqualTo(id);
+        assertThat(meterRegistry.get("orders.read.batch.size").summary().max()).isEqualTo(1);
+    }
+
+    @Test
+    void fullBatchIsSentWithoutWaitingForTheWindow() {
+        loader = new OrderBatchLoader(orderRepository, meterRegistry, Duration.ofMinutes(1), 3);
+        answerWithOrdersFor();
+
+        List<CompletableFuture<OrderResponseDTO>> futures = IntStream.range(0, 3)
+                .mapToObj(i -> loader.load(UUID.randomUUID())).toList();
+
+        assertThat(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)))
+                .succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void missingIdFailsOnlyItsOwnFuture() {
+        loader = new OrderBatchLoader(orderRepository, meterRegistry, Duration.ofMillis(20), 100);
+        UUID missing = UUID.randomUUID();
+        UUID present = UUID.randomUUID();
+        when(orderRepository.findResponsesByIdIn(any())).thenReturn(List.of(order(present)));
+
+        CompletableFuture<OrderResponseDTO> missingFuture = loader.load(missing);
+        CompletableFuture<OrderResponseDTO> presentFuture = loader.load(present);
+
+        assertThat(presentFuture.join().id()).isEqualTo(present);
+        assertThatThrownBy(missingFuture::join)
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("Pedido não encontrado");
+    }
+
+    @Test
+    void concurrentReadsOfTheSameOrderHitTheDatabaseOnce() throws Exception {
+        loader = new OrderBatchLoader(orderRepository, meterRegistry, Duration.ofMillis(5), 100);
+        OrderCache cache = new OrderCache(meterRegistry, 1000, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        UUID id = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger queries = new AtomicInteger();
+        when(orderRepository.findResponsesByIdIn(any())).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(order(id));
+        });
+
+        int readers = 200;
+        CountDownLatch started = new CountDownLatch(readers);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<OrderResponseDTO>> reads = IntStream.range(0, readers)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                        started.countDown();
+                        return cache.get(id, loader::load);
+                    }, clients))
+                    .toList();
+            started.await(5, TimeUnit.SECONDS);
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(reads.stream().map(CompletableFuture::join)).allMatch(order -> order.id().equals(id));
+        }
+
+        assertThat(queries).hasValue(1);
+        assertThat(meterRegistry.get("orders.read.requests").counter().count()).isEqualTo(readers);
+        assertThat(meterRegistry.get("orders.read.loads").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.read.coalescing.ratio").gauge().value()).isGreaterThan(0.99);
+    }
+
+    private void answerWithOrdersFor() {
+        when(orderRepository.findResponsesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(OrderBatchLoaderTests::order).toList();
+        });
+    }
+
+    private static OrderResponseDTO order(UUID id) {
+        return new OrderResponseDTO(id, "Cliente", BigDecimal.TEN, OrderStatus.PENDING, LocalDateTime.now());
+    }
+}
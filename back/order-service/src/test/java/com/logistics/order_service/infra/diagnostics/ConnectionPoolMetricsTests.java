@@ -0,0 +1,92 @@
+package com.logistics.order_service.infra.diagnostics;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ShutdownListener;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ChannelListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolMetricsTests {
+
+    private final HikariDataSource dataSource = mock(HikariDataSource.class);
+    private final CachingConnectionFactory connectionFactory = mock(CachingConnectionFactory.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void jdbcSaturationCountsThreadsWaitingForAConnection() {
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(pool.getActiveConnections()).thenReturn(10);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(5);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(dataSource.getMaximumPoolSize()).thenReturn(10);
+
+        metrics().bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("db.pool.saturation").gauge().value()).isEqualTo(1.5);
+    }
+
+    @Test
+    void jdbcSaturationIsZeroBeforeThePoolStarts() {
+        metrics().bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("db.pool.saturation").gauge().value()).isZero();
+    }
+
+    @Test
+    void channelSaturationIsOpenMinusIdleChannelsOverTheCacheSize() {
+        ConnectionPoolMetrics metrics = metrics();
+        metrics.bindTo(meterRegistry);
+        ChannelListener listener = channelListener();
+
+        Channel first = mock(Channel.class);
+        listener.onCreate(first, false);
+        listener.onCreate(mock(Channel.class), false);
+        listener.onCreate(mock(Channel.class), false);
+        when(connectionFactory.getChannelCacheSize()).thenReturn(4);
+        when(connectionFactory.getCacheProperties()).thenReturn(cache(1));
+
+        assertThat(meterRegistry.get("rabbitmq.channels.open").gauge().value()).isEqualTo(3);
+        assertThat(meterRegistry.get("rabbitmq.channels.idle").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("rabbitmq.channels.saturation").gauge().value()).isEqualTo(0.5);
+
+        ArgumentCaptor<ShutdownListener> shutdown = ArgumentCaptor.forClass(ShutdownListener.class);
+        verify(first).addShutdownListener(shutdown.capture());
+        shutdown.getValue().shutdownCompleted(null);
+
+        assertThat(meterRegistry.get("rabbitmq.channels.open").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("rabbitmq.channels.saturation").gauge().value()).isEqualTo(0.25);
+    }
+
+    private ConnectionPoolMetrics metrics() {
+        return new ConnectionPoolMetrics(provider(dataSource), provider(connectionFactory));
+    }
+
+    private ChannelListener channelListener() {
+        ArgumentCaptor<ChannelListener> listener = ArgumentCaptor.forClass(ChannelListener.class);
+        verify(connectionFactory).addChannelListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private static Properties cache(int idle) {
+        Properties properties = new Properties();
+        properties.setProperty("idleChannelsNotTx", String.valueOf(idle));
+        return properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        ObjectProvider<T> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(bean);
+        return provider;
+    }
+}
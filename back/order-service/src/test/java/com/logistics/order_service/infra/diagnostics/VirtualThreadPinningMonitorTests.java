@@ -0,0 +1,56 @@
+package com.logistics.order_service.infra.diagnostics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTests {
+
+    @Test
+    void reportsWhereAVirtualThreadBlockedWhilePinned() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        try {
+            // Bloquear dentro de um inicializador de classe prende a carrier em qualquer versão do JDK
+            Thread.ofVirtual().start(() -> SlowInitializer.touch()).join();
+
+            Timer pinned = awaitTimer(meterRegistry, SlowInitializer.class.getName());
+            assertThat(pinned.count()).isEqualTo(1);
+            assertThat(pinned.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        } finally {
+            monitor.close();
+        }
+    }
+
+    // O stream JFR entrega os eventos em lotes (~1s)
+    private static Timer awaitTimer(SimpleMeterRegistry meterRegistry, String source) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (System.nanoTime() < deadline) {
+            Timer timer = meterRegistry.find("jvm.threads.virtual.pinned").tag("source", source).timer();
+            if (timer != null) {
+                return timer;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Nenhum evento de pinning registrado para " + source);
+    }
+
+    static class SlowInitializer {
+
+        static {
+            try {
+                Thread.sleep(60);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        static void touch() {
+        }
+    }
+}
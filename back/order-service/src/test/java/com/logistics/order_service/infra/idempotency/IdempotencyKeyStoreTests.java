@@ -0,0 +1,81 @@
+package com.logistics.order_service.infra.idempotency;
+
+import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.IdempotencyKeyRepository;
+import com.logistics.order_service.repository.IdempotentOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyStoreTests {
+
+    private final IdempotencyKeyRepository repository = mock(IdempotencyKeyRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdempotencyKeyStore store = new IdempotencyKeyStore(repository, meterRegistry, 100, Duration.ofHours(1));
+
+    private final CreateOrderDTO request = new CreateOrderDTO("Maria Silva", new BigDecimal("10.00"));
+    private final OrderResponseDTO order = new OrderResponseDTO(UUID.randomUUID(), "Maria Silva",
+            new BigDecimal("10.00"), OrderStatus.PENDING, LocalDateTime.now());
+
+    @Test
+    void completedKeyIsAnsweredFromMemoryWithoutTouchingTheTable() {
+        String hash = store.requestHash(request);
+        store.complete("key-1", hash, order);
+
+        assertThat(store.find("key-1", hash)).contains(order);
+
+        verify(repository).complete("key-1", order.id());
+        verify(repository, never()).findOrder(any());
+        assertThat(meterRegistry.get("orders.idempotency.replayed").tag("source", "memory").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void keyFromAnotherReplicaIsLoadedOnceFromTheTable() {
+        String hash = store.requestHash(request);
+        IdempotentOrder stored = stored(hash);
+        when(repository.findOrder("key-2")).thenReturn(Optional.of(stored));
+
+        assertThat(store.find("key-2", hash)).contains(order);
+        assertThat(store.find("key-2", hash)).contains(order);
+
+        verify(repository, times(1)).findOrder("key-2");
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        store.complete("key-3", store.requestHash(request), order);
+
+        // Mesmo valor com outra escala é a mesma requisição; outro valor não
+        String sameAmount = store.requestHash(new CreateOrderDTO("Maria Silva", new BigDecimal("10")));
+        String otherAmount = store.requestHash(new CreateOrderDTO("Maria Silva", new BigDecimal("11.00")));
+
+        assertThat(store.find("key-3", sameAmount)).contains(order);
+        assertThatThrownBy(() -> store.find("key-3", otherAmount)).isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    void unknownKeyIsAMiss() {
+        when(repository.findOrder("key-4")).thenReturn(Optional.empty());
+
+        assertThat(store.find("key-4", store.requestHash(request))).isEmpty();
+    }
+
+    private IdempotentOrder stored(String hash) {
+        IdempotentOrder stored = mock(IdempotentOrder.class);
+        when(stored.getRequestHash()).thenReturn(hash);
+        when(stored.toResponse()).thenReturn(order);
+        return stored;
+    }
+}
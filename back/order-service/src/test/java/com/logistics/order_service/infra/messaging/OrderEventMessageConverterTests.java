@@ -0,0 +1,88 @@
+package com.logistics.order_service.infra.messaging;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventMessageConverterTests {
+
+    private final OrderResponseDTO event = new OrderResponseDTO(UUID.randomUUID(), "João Araújo",
+            new BigDecimal("1234.56"), OrderStatus.SHIPPED, LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_789));
+
+    @Test
+    void binaryRoundTripIsSmallerThanJson() {
+        MessageConverter binary = new RabbitMQConfig().messageConverter("binary");
+        MessageConverter json = new RabbitMQConfig().messageConverter("json");
+
+        Message binaryMessage = binary.toMessage(event, new MessageProperties());
+        Message jsonMessage = json.toMessage(event, new MessageProperties());
+
+        assertThat(binaryMessage.getMessageProperties().getContentType()).isEqualTo(OrderEventBinaryCodec.CONTENT_TYPE);
+        assertThat(binaryMessage.getBody().length).isLessThan(jsonMessage.getBody().length);
+        assertThat(binary.fromMessage(binaryMessage)).isEqualTo(event);
+    }
+
+    @Test
+    void binaryConsumerStillReadsJson() {
+        Message jsonMessage = new RabbitMQConfig().messageConverter("json").toMessage(event, new MessageProperties());
+        jsonMessage.getMessageProperties().setInferredArgumentType(OrderResponseDTO.class);
+
+        assertThat(new RabbitMQConfig().messageConverter("binary").fromMessage(jsonMessage)).isEqualTo(event);
+    }
+
+    @Test
+    void nullFieldsSurviveTheRoundTrip() {
+        OrderResponseDTO partial = new OrderResponseDTO(event.id(), null, null, OrderStatus.PENDING, null);
+
+        assertThat(OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(partial))).isEqualTo(partial);
+    }
+
+    @Test
+    void unknownVersionIsRejected() {
+        byte[] body = OrderEventBinaryCodec.encode(event);
+        body[0] = 2;
+
+        assertThatThrownBy(() -> OrderEventBinaryCodec.decode(body))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void largestNumeric38AmountFitsAndBiggerOnesAreRejectedOnEncode() {
+        OrderResponseDTO largest = new OrderResponseDTO(event.id(), "Maria",
+                new BigDecimal("999999999999999999999999999999999999.99"), OrderStatus.PENDING, event.createdAt());
+        assertThat(OrderEventBinaryCodec.decode(OrderEventBinaryCodec.encode(largest))).isEqualTo(largest);
+
+        OrderResponseDTO beyond = new OrderResponseDTO(event.id(), "Maria",
+                new BigDecimal(BigInteger.TWO.pow(128), 2), OrderStatus.PENDING, event.createdAt());
+        assertThatThrownBy(() -> OrderEventBinaryCodec.encode(beyond)).isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void truncatedOrCorruptBodiesAreMalformed() {
+        byte[] body = OrderEventBinaryCodec.encode(event);
+        for (int length = 0; length < body.length; length++) {
+            byte[] truncated = Arrays.copyOf(body, length);
+            assertThatThrownBy(() -> OrderEventBinaryCodec.decode(truncated))
+                    .isInstanceOf(MessageConversionException.class);
+        }
+
+        // Tamanho do amount depois de versão, flags, id, status, createdAt e scale; 0xFF não pode virar -1
+        body[2 + 16 + 1 + 12 + 4] = (byte) 0xFF;
+        assertThatThrownBy(() -> OrderEventBinaryCodec.decode(body))
+                .isInstanceOf(MessageConversionException.class)
+                .hasMessageContaining("malformado");
+    }
+}
@@ -0,0 +1,73 @@
+package com.logistics.order_service.infra.messaging.consumers;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.cache.OrderCache;
+import com.logistics.order_service.infra.messaging.outbox.OrderOutbox;
+import com.logistics.order_service.infra.stats.OrderStats;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class OrderCacheInvalidationListenerTests {
+
+    private final OrderCache orderCache = mock(OrderCache.class);
+    private final OrderStats orderStats = mock(OrderStats.class);
+    private final OrderOutbox orderOutbox = new OrderOutbox(mock(OutboxEventRepository.class), mock(MessageConverter.class));
+    private final OrderCacheInvalidationListener listener =
+            new OrderCacheInvalidationListener(orderCache, orderStats, orderOutbox);
+
+    private final OrderResponseDTO event = new OrderResponseDTO(UUID.randomUUID(), "Maria", new BigDecimal("10.00"),
+            OrderStatus.SHIPPED, LocalDateTime.now());
+
+    @Test
+    void writesFromAnotherReplicaReachTheStats() {
+        listener.onOrderEvent(event, UUID.randomUUID().toString(), "PENDING", 42L);
+        verify(orderStats).recordRemote(OrderStatus.PENDING, event, 42L);
+        verify(orderCache).evict(event.id());
+
+        listener.onOrderEvent(event, UUID.randomUUID().toString(), null, null);
+        verify(orderStats).recordRemote(null, event, null);
+    }
+
+    @Test
+    void ownAndUnattributedEventsOnlyEvictTheCache() {
+        listener.onOrderEvent(event, orderOutbox.origin(), "PENDING", 42L);
+        listener.onOrderEvent(event, null, "PENDING", 42L);
+
+        verifyNoInteractions(orderStats);
+    }
+
+    @Test
+    void outboxRowCarriesOriginPreviousStatusAndTransactionAsHeaders() {
+        OutboxEvent row = OutboxEvent.builder()
+                .id(1L)
+                .aggregateId(event.id())
+                .payload(new byte[0])
+                .createdAt(LocalDateTime.now())
+                .origin(orderOutbox.origin())
+                .previousStatus(OrderStatus.PENDING)
+                .xactId(42L)
+                .build();
+
+        MessageProperties properties = row.toMessage().getMessageProperties();
+        assertThat((String) properties.getHeader(OutboxEvent.ORIGIN_HEADER)).isEqualTo(orderOutbox.origin());
+        assertThat((String) properties.getHeader(OutboxEvent.PREVIOUS_STATUS_HEADER)).isEqualTo("PENDING");
+        assertThat((Long) properties.getHeader(OutboxEvent.XACT_ID_HEADER)).isEqualTo(42L);
+
+        row.setPreviousStatus(null);
+        assertThat(row.toMessage().getMessageProperties().getHeaders())
+                .doesNotContainKey(OutboxEvent.PREVIOUS_STATUS_HEADER);
+    }
+}
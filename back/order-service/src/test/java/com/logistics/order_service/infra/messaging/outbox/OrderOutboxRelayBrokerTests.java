@@ -0,0 +1,323 @@
+package com.logistics.order_service.infra.messaging.outbox;
+
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.qpid.server.SystemLauncher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Relay de ponta a ponta: outbox num Postgres embutido (reserva com SKIP LOCKED) e publicação num broker AMQP
+// embutido (Qpid Broker-J), com publisher confirms e returns de verdade
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderOutboxRelayBrokerTests.EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderOutboxRelayBrokerTests {
+
+    private static final String QUEUE = "outbox-relay-tests";
+
+    private static EmbeddedPostgres postgres;
+    private static SystemLauncher broker;
+    private static CachingConnectionFactory connectionFactory;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Registra, a cada mensagem enviada, se a thread do relay estava dentro de uma transação
+    private final List<Boolean> publishedInTransaction = new CopyOnWriteArrayList<>();
+    private final List<String> returnedIds = new CopyOnWriteArrayList<>();
+    private RabbitAdmin admin;
+    private RabbitTemplate rabbitTemplate;
+    private OrderOutboxRelay relay;
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean
+        DataSource dataSource() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        broker = new SystemLauncher();
+        broker.startup(Map.of(
+                "type", "Memory",
+                "initialConfigurationLocation",
+                OrderOutboxRelayBrokerTests.class.getResource("/qpid-config.json").toExternalForm(),
+                "startupLoggedToSystemOut", false,
+                "context", Map.of(
+                        "qpid.amqp_port", port,
+                        "qpid.work_dir", Files.createTempDirectory("outbox-broker").toString())));
+
+        // Mesma configuração de publicação do serviço: confirms correlacionados e returns
+        connectionFactory = new CachingConnectionFactory("localhost", port);
+        connectionFactory.setUsername("guest");
+        connectionFactory.setPassword("guest");
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        connectionFactory.setPublisherReturns(true);
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (broker != null) {
+            broker.shutdown();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("delete from tb_order_outbox");
+
+        admin = new RabbitAdmin(connectionFactory);
+        admin.declareExchange(new FanoutExchange(RabbitMQConfig.ORDER_EVENTS_EXCHANGE, true, false));
+        admin.deleteQueue(QUEUE);
+
+        rabbitTemplate = new RabbitTemplate(connectionFactory);
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setReturnsCallback(returned -> returnedIds.add(returned.getMessage().getMessageProperties().getMessageId()));
+        rabbitTemplate.setBeforePublishPostProcessors(message -> {
+            publishedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return message;
+        });
+        relay = new OrderOutboxRelay(outboxEventRepository, rabbitTemplate, new TransactionTemplate(transactionManager),
+                meterRegistry, 100, Duration.ofSeconds(5), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void confirmedEventsReachTheQueueInOrderAndLeaveTheOutbox() {
+        bindQueue();
+        List<Long> ids = append(3);
+
+        assertThat(relay.relay()).isEqualTo(3);
+
+        List<String> delivered = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Message message = rabbitTemplate.receive(QUEUE, 2_000);
+            assertThat(message).isNotNull();
+            delivered.add(message.getMessageProperties().getMessageId());
+            // Transação que gravou o evento, preenchida pelo default da coluna: já commitada, o snapshot atual a vê
+            Long xactId = message.getMessageProperties().getHeader(OutboxEvent.XACT_ID_HEADER);
+            assertThat(jdbc.queryForObject("select pg_visible_in_snapshot(?::text::xid8, pg_current_snapshot())",
+                    Boolean.class, xactId)).isTrue();
+        }
+        assertThat(delivered).containsExactlyElementsOf(ids.stream().map(String::valueOf).toList());
+        assertThat(outboxSize()).isZero();
+        assertThat(meterRegistry.get("orders.outbox.published").counter().count()).isEqualTo(3);
+
+        // Publicação e espera pelos confirms fora de transação: o broker lento não segura conexão do pool
+        assertThat(publishedInTransaction).hasSize(3).containsOnly(false);
+    }
+
+    @Test
+    void unroutedEventsAreReturnedAndStayInTheOutboxForTheNextCycle() throws InterruptedException {
+        List<Long> ids = append(2);
+
+        assertThat(relay.relay()).isZero();
+
+        // O Qpid manda nack antes do basic.return (o RabbitMQ manda o return e depois ack): nos dois casos o evento
+        // não conta como publicado e fica na outbox
+        assertThat(meterRegistry.get("orders.outbox.published").counter().count()).isZero();
+        assertThat(meterRegistry.get("orders.outbox.failed").counter().count()).isEqualTo(2);
+        assertThat(outboxSize()).isEqualTo(2);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (returnedIds.size() < ids.size() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(returnedIds).containsExactlyInAnyOrderElementsOf(ids.stream().map(String::valueOf).toList());
+        // Reserva liberada: com a fila de volta, o próximo ciclo publica sem esperar o lease vencer
+        assertThat(jdbc.queryForObject("select count(*) from tb_order_outbox where claimed_until is not null",
+                Long.class)).isZero();
+
+        bindQueue();
+        assertThat(relay.relay()).isEqualTo(2);
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void claimsSkipLockedRowsAndRowsReservedByAnotherRelay() throws Exception {
+        List<Long> ids = append(4);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // Outra réplica no meio da reserva: a primeira linha está travada por uma transação aberta
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> otherReplica = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            jdbc.queryForList("select id from tb_order_outbox where id = ? for update", ids.getFirst());
+            locked.countDown();
+            await(release);
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<OutboxEvent> claimed = claim(2, 30);
+        release.countDown();
+        otherReplica.get(5, TimeUnit.SECONDS);
+        assertThat(claimed).extracting(OutboxEvent::getId).containsExactlyInAnyOrder(ids.get(1), ids.get(2));
+
+        // Já sem locks, as linhas reservadas continuam fora dos outros relays até o lease vencer
+        List<OutboxEvent> next = claim(10, 30);
+        assertThat(next).extracting(OutboxEvent::getId).containsExactlyInAnyOrder(ids.get(0), ids.get(3));
+        assertThat(claim(10, 30)).isEmpty();
+
+        tx.executeWithoutResult(status -> outboxEventRepository.releaseClaims(List.of(ids.get(1))));
+        assertThat(claim(10, 30))
+                .extracting(OutboxEvent::getId).containsExactly(ids.get(1));
+    }
+
+    @Test
+    void eventsOfTheSameOrderArePublishedOneAtATimeInWriteOrder() {
+        UUID order = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        // Ids fora da ordem de gravação, como quando cada réplica usa seu bloco da sequence
+        insert(900_003L, order, "PENDING");
+        insert(900_001L, order, "PROCESSED");
+        insert(900_002L, other, "PENDING");
+        insert(900_000L, order, "SHIPPED");
+
+        // Só o primeiro evento de cada pedido; com ele reservado, outro relay não adianta o seguinte
+        assertThat(claim(10, 30)).extracting(OutboxEvent::getId).containsExactlyInAnyOrder(900_003L, 900_002L);
+        assertThat(claim(10, 30)).isEmpty();
+
+        // Sem fila o head volta sem confirmação e continua segurando os posteriores
+        jdbc.update("update tb_order_outbox set claimed_until = null");
+        assertThat(relay.relay()).isZero();
+
+        bindQueue();
+        List<String> delivered = new ArrayList<>();
+        for (int published = relay.relay(); published > 0; published = relay.relay()) {
+            for (int i = 0; i < published; i++) {
+                delivered.add(new String(rabbitTemplate.receive(QUEUE, 2_000).getBody(), StandardCharsets.UTF_8));
+            }
+        }
+        assertThat(delivered).containsExactly(order + " PENDING", other + " PENDING", order + " PROCESSED",
+                order + " SHIPPED");
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void expiredLeaseMakesTheEventAvailableAgain() throws InterruptedException {
+        List<Long> ids = append(1);
+
+        assertThat(claim(10, 0.05)).hasSize(1);
+        Thread.sleep(100);
+
+        // Relay que caiu depois de reservar: outro pega o lote quando a reserva vence
+        bindQueue();
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(rabbitTemplate.receive(QUEUE, 2_000).getMessageProperties().getMessageId())
+                .isEqualTo(ids.getFirst().toString());
+    }
+
+    private void bindQueue() {
+        Queue queue = new Queue(QUEUE, false);
+        admin.declareQueue(queue);
+        admin.declareBinding(BindingBuilder.bind(queue)
+                .to(new FanoutExchange(RabbitMQConfig.ORDER_EVENTS_EXCHANGE, true, false)));
+    }
+
+    private List<Long> append(int count) {
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(OutboxEvent.builder()
+                    .aggregateId(UUID.randomUUID())
+                    .contentType("application/json")
+                    .payload(("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8))
+                    .build());
+        }
+        return outboxEventRepository.saveAll(events).stream().map(OutboxEvent::getId).sorted().toList();
+    }
+
+    private void insert(long id, UUID aggregateId, String status) {
+        jdbc.update("""
+                insert into tb_order_outbox (id, aggregate_id, content_type, payload, created_at)
+                values (?, ?, 'text/plain', ?, localtimestamp)
+                """, id, aggregateId, (aggregateId + " " + status).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<OutboxEvent> claim(int limit, double leaseSeconds) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> outboxEventRepository.claimNextBatch(limit, leaseSeconds));
+    }
+
+    private long outboxSize() {
+        return jdbc.queryForObject("select count(*) from tb_order_outbox", Long.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
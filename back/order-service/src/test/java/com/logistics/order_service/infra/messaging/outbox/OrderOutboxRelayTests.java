@@ -0,0 +1,157 @@
+package com.logistics.order_service.infra.messaging.outbox;
+
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class OrderOutboxRelayTests {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final StubBroker broker = new StubBroker();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OrderOutboxRelay(repository, broker, TransactionOperations.withoutTransaction(), meterRegistry,
+                100, Duration.ofMillis(200), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void publishesBatchAndDeletesOnlyConfirmedEvents() {
+        // A reserva devolve as linhas em qualquer ordem; a publicação segue a ordem da outbox
+        List<OutboxEvent> batch = List.of(event(3L, 1), event(1L, 3), event(2L, 2));
+        when(repository.claimNextBatch(100, 30.0)).thenReturn(batch);
+        broker.nack.add("2");
+
+        int published = relay.relay();
+
+        assertThat(published).isEqualTo(2);
+        assertThat(broker.received).extracting(Message::getMessageProperties)
+                .extracting(MessageProperties::getMessageId)
+                .containsExactly("1", "2", "3");
+        assertThat(broker.exchanges).containsOnly(RabbitMQConfig.ORDER_EVENTS_EXCHANGE);
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 3L));
+        verify(repository).releaseClaims(List.of(2L));
+
+        assertThat(meterRegistry.get("orders.outbox.published").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("orders.outbox.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.outbox.batch.size").summary().totalAmount()).isEqualTo(3);
+        assertThat(meterRegistry.get("orders.outbox.lag.ms").gauge().value()).isGreaterThanOrEqualTo(3_000);
+    }
+
+    @Test
+    void keepsEventsWhenBrokerNeverConfirms() {
+        when(repository.claimNextBatch(100, 30.0)).thenReturn(List.of(event(1L, 0)));
+        broker.silent.add("1");
+
+        assertThat(relay.relay()).isZero();
+        verify(repository).deleteAllByIdInBatch(List.of());
+        verify(repository).releaseClaims(List.of(1L));
+        assertThat(meterRegistry.get("orders.outbox.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void returnedEventsStayInTheOutboxEvenWhenAcked() {
+        when(repository.claimNextBatch(100, 30.0)).thenReturn(List.of(event(1L, 1), event(2L, 1)));
+        broker.returned.add("1");
+
+        assertThat(relay.relay()).isEqualTo(1);
+        verify(repository).deleteAllByIdInBatch(List.of(2L));
+        verify(repository).releaseClaims(List.of(1L));
+        assertThat(meterRegistry.get("orders.outbox.returned").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("orders.outbox.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void wholeBatchIsPublishedInsideOneChannelCheckout() {
+        when(repository.claimNextBatch(100, 30.0)).thenReturn(List.of(event(1L, 1), event(2L, 1), event(3L, 1)));
+
+        relay.relay();
+
+        assertThat(broker.invocations).isEqualTo(1);
+        assertThat(broker.received).hasSize(3);
+    }
+
+    @Test
+    void idleCycleResetsLag() {
+        when(repository.claimNextBatch(100, 30.0)).thenReturn(List.of());
+
+        assertThat(relay.relay()).isZero();
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        verify(repository, never()).releaseClaims(any());
+        assertThat(meterRegistry.get("orders.outbox.lag.ms").gauge().value()).isZero();
+    }
+
+    @Test
+    void leaseMustOutliveTheConfirmTimeout() {
+        assertThatThrownBy(() -> new OrderOutboxRelay(repository, broker, TransactionOperations.withoutTransaction(),
+                meterRegistry, 100, Duration.ofSeconds(5), Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OutboxEvent event(Long id, int ageSeconds) {
+        return OutboxEvent.builder()
+                .id(id)
+                .sequenceNumber(id)
+                .aggregateId(UUID.randomUUID())
+                .contentType("application/json")
+                .payload("{}".getBytes(StandardCharsets.UTF_8))
+                .createdAt(LocalDateTime.now().minusSeconds(ageSeconds))
+                .build();
+    }
+
+    // Substituto local do broker: registra o que foi publicado e responde os publisher confirms
+    private static class StubBroker extends RabbitTemplate {
+
+        private final List<Message> received = new ArrayList<>();
+        private final List<String> exchanges = new ArrayList<>();
+        private final Set<String> nack = new HashSet<>();
+        private final Set<String> silent = new HashSet<>();
+        private final Set<String> returned = new HashSet<>();
+        private int invocations;
+
+        @Override
+        public <T> T invoke(OperationsCallback<T> action, com.rabbitmq.client.ConfirmCallback acks,
+                com.rabbitmq.client.ConfirmCallback nacks) {
+            invocations++;
+            return action.doInRabbit(this);
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            received.add(message);
+            exchanges.add(exchange);
+            if (returned.contains(correlationData.getId())) {
+                correlationData.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", exchange, routingKey));
+            }
+            if (!silent.contains(correlationData.getId())) {
+                boolean ack = !nack.contains(correlationData.getId());
+                correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            }
+        }
+    }
+}
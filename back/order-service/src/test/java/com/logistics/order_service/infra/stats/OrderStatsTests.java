@@ -0,0 +1,186 @@
+package com.logistics.order_service.infra.stats;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatsDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderStatsTests {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final AtomicLong clock = new AtomicLong(10 * 60_000);
+    private final OrderStats stats = new OrderStats(orderRepository, TransactionOperations.withoutTransaction(), clock::get);
+
+    @Test
+    void createsAndTransitionsMoveCountsAndAmountsBetweenStatuses() {
+        OrderResponseDTO first = order(OrderStatus.PENDING, "10.50");
+        OrderResponseDTO second = order(OrderStatus.PENDING, "4.25");
+        stats.recordCreated(List.of(first, second));
+        stats.recordTransition(OrderStatus.PENDING, shipped(first));
+
+        OrderStatsDTO snapshot = stats.snapshot();
+
+        assertThat(snapshot.total()).isEqualTo(2);
+        assertThat(snapshot.totalAmount()).isEqualByComparingTo("14.75");
+        assertThat(byStatus(snapshot, OrderStatus.PENDING)).isEqualTo(new OrderStatusStatsDTO(OrderStatus.PENDING, 1, new BigDecimal("4.25")));
+        assertThat(byStatus(snapshot, OrderStatus.SHIPPED)).isEqualTo(new OrderStatusStatsDTO(OrderStatus.SHIPPED, 1, new BigDecimal("10.50")));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void archivedOrdersLeaveTheCounts() {
+        OrderResponseDTO completed = order(OrderStatus.COMPLETED, "7.00");
+        stats.recordCreated(List.of(completed, order(OrderStatus.PENDING, "3.00")));
+
+        stats.recordArchived(List.of(completed));
+
+        OrderStatsDTO snapshot = stats.snapshot();
+        assertThat(snapshot.total()).isEqualTo(1);
+        assertThat(snapshot.totalAmount()).isEqualByComparingTo("3.00");
+        assertThat(byStatus(snapshot, OrderStatus.COMPLETED).count()).isZero();
+    }
+
+    @Test
+    void throughputReportsTheLastClosedMinute() {
+        stats.recordCreated(List.of(order(OrderStatus.PENDING, "1.00"), order(OrderStatus.PENDING, "1.00")));
+        assertThat(stats.snapshot().createdPerMinute()).isZero();
+
+        clock.addAndGet(60_000);
+        stats.recordCreated(List.of(order(OrderStatus.PENDING, "1.00")));
+        assertThat(stats.snapshot().createdPerMinute()).isEqualTo(2);
+
+        clock.addAndGet(60_000);
+        assertThat(stats.snapshot().createdPerMinute()).isEqualTo(1);
+
+        clock.addAndGet(5 * 60_000);
+        assertThat(stats.snapshot().createdPerMinute()).isZero();
+    }
+
+    @Test
+    void reconcileReplacesDriftWithDatabaseTotals() {
+        stats.recordCreated(List.of(order(OrderStatus.PENDING, "10.00")));
+        when(orderRepository.sumByStatus()).thenReturn(List.of(
+                new OrderStatusStatsDTO(OrderStatus.PENDING, 3, new BigDecimal("30.00")),
+                new OrderStatusStatsDTO(OrderStatus.DELIVERED, 2, new BigDecimal("7.10"))));
+
+        assertThat(stats.reconcile()).isTrue();
+
+        OrderStatsDTO snapshot = stats.snapshot();
+        assertThat(snapshot.total()).isEqualTo(5);
+        assertThat(snapshot.totalAmount()).isEqualByComparingTo("37.10");
+        assertThat(snapshot.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    void writesAppliedAfterTheSnapshotAreKeptOnTopOfTheDatabaseTotals() {
+        stats.recordCreated(List.of(order(OrderStatus.PENDING, "9.00")));
+        when(orderRepository.sumByStatus()).thenAnswer(invocation -> {
+            // Commit posterior ao snapshot: não está na base lida, mas entra nos contadores durante a consulta
+            stats.recordCreated(List.of(order(OrderStatus.PENDING, "1.00")));
+            return List.of(new OrderStatusStatsDTO(OrderStatus.DELIVERED, 2, new BigDecimal("4.00")));
+        });
+
+        assertThat(stats.reconcile()).isTrue();
+
+        OrderStatsDTO snapshot = stats.snapshot();
+        assertThat(byStatus(snapshot, OrderStatus.PENDING))
+                .isEqualTo(new OrderStatusStatsDTO(OrderStatus.PENDING, 1, new BigDecimal("1.00")));
+        assertThat(snapshot.total()).isEqualTo(3);
+    }
+
+    @Test
+    void commitInFlightWhenTheSnapshotIsTakenIsNotCountedTwice() throws Exception {
+        List<TransactionSynchronization> synchronizations;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stats.recordCreated(List.of(order(OrderStatus.PENDING, "5.00")));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        when(orderRepository.sumByStatus()).thenReturn(List.of(
+                new OrderStatusStatsDTO(OrderStatus.PENDING, 1, new BigDecimal("5.00"))));
+
+        // Transação commitando: a base já pode enxergá-la, mas o afterCommit ainda não somou
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        CompletableFuture<Boolean> reconcile = CompletableFuture.supplyAsync(stats::reconcile);
+        Thread.sleep(100);
+        assertThat(reconcile).isNotDone();
+        verify(orderRepository, never()).currentSnapshot();
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(reconcile.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stats.snapshot().total()).isEqualTo(1);
+        assertThat(stats.snapshot().totalAmount()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void writesFromOtherReplicasMoveTheCountsToo() {
+        OrderResponseDTO created = order(OrderStatus.PENDING, "2.00");
+
+        stats.recordRemote(null, created, 100L);
+        stats.recordRemote(OrderStatus.PENDING, shipped(created), 101L);
+
+        OrderStatsDTO snapshot = stats.snapshot();
+        assertThat(byStatus(snapshot, OrderStatus.PENDING).count()).isZero();
+        assertThat(byStatus(snapshot, OrderStatus.SHIPPED))
+                .isEqualTo(new OrderStatusStatsDTO(OrderStatus.SHIPPED, 1, new BigDecimal("2.00")));
+        clock.addAndGet(60_000);
+        assertThat(stats.snapshot().createdPerMinute()).isEqualTo(1);
+        assertThat(stats.snapshot().statusChangesPerMinute()).isEqualTo(1);
+    }
+
+    @Test
+    void remoteWritesTheReconciledSnapshotAlreadySawAreNotCountedAgain() {
+        // 101 commitada antes do snapshot, 102 em andamento nele, 105 começou depois
+        when(orderRepository.currentSnapshot()).thenReturn("100:105:102");
+        when(orderRepository.sumByStatus()).thenReturn(List.of(
+                new OrderStatusStatsDTO(OrderStatus.PENDING, 1, new BigDecimal("1.00"))));
+        assertThat(stats.reconcile()).isTrue();
+
+        // Evento da 101 chegando depois da reconciliação: já está no total lido da base
+        stats.recordRemote(null, order(OrderStatus.PENDING, "1.00"), 101L);
+        assertThat(stats.snapshot().total()).isEqualTo(1);
+
+        stats.recordRemote(null, order(OrderStatus.PENDING, "2.00"), 102L);
+        stats.recordRemote(null, order(OrderStatus.PENDING, "3.00"), 105L);
+        stats.recordRemote(null, order(OrderStatus.PENDING, "4.00"), null);
+        assertThat(stats.snapshot().total()).isEqualTo(4);
+        assertThat(stats.snapshot().totalAmount()).isEqualByComparingTo("10.00");
+    }
+
+    private static OrderStatusStatsDTO byStatus(OrderStatsDTO snapshot, OrderStatus status) {
+        return snapshot.byStatus().get(status.ordinal());
+    }
+
+    private static OrderResponseDTO shipped(OrderResponseDTO order) {
+        return new OrderResponseDTO(order.id(), order.customerName(), order.amount(), OrderStatus.SHIPPED, order.createdAt());
+    }
+
+    private static OrderResponseDTO order(OrderStatus status, String amount) {
+        return new OrderResponseDTO(UUID.randomUUID(), "Cliente", new BigDecimal(amount), status, LocalDateTime.now());
+    }
+}
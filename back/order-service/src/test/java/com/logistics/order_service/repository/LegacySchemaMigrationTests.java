@@ -0,0 +1,111 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.entity.Order;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Banco de uma instalação anterior ao Flyway: tb_orders criada pelo ddl-auto=update, sem a coluna version.
+// O contexto só sobe se as migrations (baseline 0) deixarem o schema como o ddl-auto=validate espera
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LegacySchemaMigrationTests.EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacySchemaMigrationTests {
+
+    private static final UUID LEGACY_ORDER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        // O schema legado precisa existir antes do Flyway, que roda na criação do contexto
+        @Bean
+        DataSource dataSource() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            DataSource dataSource = postgres.getPostgresDatabase();
+            JdbcTemplate legacy = new JdbcTemplate(dataSource);
+            // DDL que o Hibernate gerava para a entidade Order antes do @Version
+            legacy.execute("""
+                    create table tb_orders (
+                        amount numeric(38,2),
+                        created_at timestamp(6),
+                        id uuid not null,
+                        customer_name varchar(255),
+                        status varchar(255) check (status in ('PENDING','PROCESSED','SHIPPED','DELIVERED','CANCELED','COMPLETED')),
+                        primary key (id)
+                    )
+                    """);
+            legacy.update("""
+                    insert into tb_orders (id, customer_name, amount, status, created_at)
+                    values (?, 'cliente antigo', 10.50, 'PENDING', localtimestamp)
+                    """, LEGACY_ORDER);
+            return dataSource;
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void migrationsBringTheDdlAutoSchemaUpToWhatTheEntitiesValidate() {
+        assertThat(jdbc.queryForObject(
+                "select max(version) from flyway_schema_history where success", String.class)).isNotNull();
+        assertThat(jdbc.queryForObject("select version from tb_orders where id = ?", Long.class, LEGACY_ORDER))
+                .isZero();
+
+        // Pedido anterior à migração passa pelo controle otimista como qualquer outro
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> orderRepository.findById(LEGACY_ORDER).orElseThrow()
+                .setStatus(OrderStatus.PROCESSED));
+        Order updated = orderRepository.findById(LEGACY_ORDER).orElseThrow();
+        assertThat(updated.getStatus()).isEqualTo(OrderStatus.PROCESSED);
+        assertThat(updated.getVersion()).isEqualTo(1);
+
+        Order created = tx.execute(status -> orderRepository.save(Order.builder()
+                .customerName("cliente novo").amount(updated.getAmount()).build()));
+        assertThat(created.getVersion()).isZero();
+    }
+}
@@ -0,0 +1,213 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderStatusStatsDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Roda as migrations num Postgres embutido e confere o plano das consultas de leitura.
+// Sem transação de teste: as leituras rodam como em produção e a massa fica visível para o EXPLAIN.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.logistics.order_service.repository.QueryPlans"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderRepositoryQueryPlanTests.EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRepositoryQueryPlanTests {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Protocolo simples: o EXPLAIN (GENERIC_PLAN) com $1..$n não pode ir como prepared statement
+    private JdbcTemplate explainJdbc;
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean
+        DataSource dataSource() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // Volume suficiente para o planner preferir índice a seq scan + sort
+    @BeforeEach
+    void seed() {
+        explainJdbc = new JdbcTemplate(postgres.getPostgresDatabase(Map.of("preferQueryMode", "simple")));
+        statistics().clear();
+
+        Long count = jdbc.queryForObject("select count(*) from tb_orders", Long.class);
+        if (count != null && count > 0) {
+            return;
+        }
+        jdbc.update("""
+                insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                select gen_random_uuid(), 'cliente ' || (i % 500), (i % 1000) + 0.99,
+                       (array['PENDING','PROCESSED','SHIPPED','DELIVERED','CANCELED','COMPLETED'])[1 + i % 6],
+                       timestamp '2026-01-01' + i * interval '1 second', 0
+                from generate_series(1, 50000) as i
+                """);
+        jdbc.execute("analyze tb_orders");
+    }
+
+    @Test
+    void firstPageByStatusWalksTheStatusIndexWithoutSorting() {
+        QueryPlans.Result<List<OrderResponseDTO>> result = QueryPlans.explain(explainJdbc,
+                () -> orderRepository.findFirstPageByStatus(OrderStatus.SHIPPED, Limit.of(51)));
+
+        assertThat(result.value()).hasSize(51).allMatch(order -> order.status() == OrderStatus.SHIPPED);
+        assertThat(result.plan()).contains("idx_orders_status_created_at_id").doesNotContain("Sort");
+        assertNoManagedEntities();
+    }
+
+    @Test
+    void nextPageByStatusSeeksInsideTheStatusIndex() {
+        OrderResponseDTO last = orderRepository.findFirstPageByStatus(OrderStatus.SHIPPED, Limit.of(50)).getLast();
+
+        QueryPlans.Result<List<OrderResponseDTO>> result = QueryPlans.explain(explainJdbc,
+                () -> orderRepository.findPageByStatusAfter(OrderStatus.SHIPPED, last.createdAt(), last.id(), Limit.of(51)));
+
+        assertThat(result.value()).hasSize(51).allMatch(order -> order.createdAt().isBefore(last.createdAt()));
+        assertThat(result.plan()).contains("idx_orders_status_created_at_id").doesNotContain("Sort")
+                .containsPattern("Index Cond: .*created_at");
+    }
+
+    @Test
+    void nextPageSeeksInsideTheCreatedAtIndex() {
+        OrderResponseDTO last = orderRepository.findFirstPage(Limit.of(50)).getLast();
+
+        QueryPlans.Result<List<OrderResponseDTO>> result = QueryPlans.explain(explainJdbc,
+                () -> orderRepository.findPageAfter(last.createdAt(), last.id(), Limit.of(51)));
+
+        assertThat(result.value()).hasSize(51);
+        assertThat(result.plan()).contains("idx_orders_created_at_id").doesNotContain("Sort")
+                .containsPattern("Index Cond: .*created_at");
+        assertNoManagedEntities();
+    }
+
+    @Test
+    void batchedFindByIdProjectsThroughThePrimaryKey() {
+        List<OrderResponseDTO> some = orderRepository.findFirstPage(Limit.of(3));
+        List<UUID> ids = some.stream().map(OrderResponseDTO::id).toList();
+
+        QueryPlans.Result<List<OrderResponseDTO>> result =
+                QueryPlans.explain(explainJdbc, () -> orderRepository.findResponsesByIdIn(ids));
+
+        assertThat(result.value()).containsExactlyInAnyOrderElementsOf(some);
+        assertThat(result.plan()).contains("tb_orders_pkey");
+        assertNoManagedEntities();
+    }
+
+    @Test
+    void transitionStatusReturnsThePreviousStatusOfEachChangedRow() {
+        List<OrderResponseDTO> pending = orderRepository.findFirstPageByStatus(OrderStatus.PENDING, Limit.of(3));
+        List<UUID> ids = pending.stream().map(OrderResponseDTO::id).toList();
+
+        List<OrderStatusTransition> transitions = new TransactionTemplate(transactionManager).execute(tx ->
+                orderRepository.transitionStatus(ids, OrderStatus.SHIPPED.name(), List.of("PENDING", "PROCESSED")));
+
+        assertThat(transitions).hasSize(3).allSatisfy(transition -> {
+            assertThat(transition.getPreviousStatus()).isEqualTo("PENDING");
+            assertThat(transition.toResponse().status()).isEqualTo(OrderStatus.SHIPPED);
+            assertThat(transition.toResponse().createdAt()).isNotNull();
+        });
+    }
+
+    @Test
+    void sumByStatusAggregatesEveryStatus() {
+        List<OrderStatusStatsDTO> totals = orderRepository.sumByStatus();
+
+        assertThat(totals).hasSize(OrderStatus.values().length);
+        assertThat(totals.stream().mapToLong(OrderStatusStatsDTO::count).sum()).isEqualTo(50_000);
+    }
+
+    @Test
+    void idempotencyKeyIsClaimedOnceAndResolvesToTheCreatedOrder() {
+        OrderResponseDTO order = orderRepository.findFirstPage(Limit.of(1)).getFirst();
+        String key = "retry-" + UUID.randomUUID();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        Integer first = tx.execute(status -> {
+            int claimed = idempotencyKeyRepository.claim(key, "hash");
+            idempotencyKeyRepository.complete(key, order.id());
+            return claimed;
+        });
+        Integer second = tx.execute(status -> idempotencyKeyRepository.claim(key, "hash"));
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(idempotencyKeyRepository.findOrder(key)).hasValueSatisfying(found -> {
+            assertThat(found.getRequestHash()).isEqualTo("hash");
+            assertThat(found.toResponse()).isEqualTo(order);
+        });
+    }
+
+    // Projeção não materializa entidade nenhuma
+    private void assertNoManagedEntities() {
+        assertThat(statistics().getEntityLoadCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,245 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.ErrorResponseDTO;
+import com.logistics.order_service.domain.entity.Order;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.exception.GlobalExceptionHandler;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Transição em massa (CTE com FOR UPDATE + UPDATE ... RETURNING) e @Version num Postgres embutido
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderStatusTransitionTests.EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusTransitionTests {
+
+    private static final List<String> BEFORE_SHIPPED = List.of("PENDING", "PROCESSED");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean
+        DataSource dataSource() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void onlyEligibleOrdersChangeAndEachGetsANewVersion() {
+        UUID pending = insert(OrderStatus.PENDING);
+        UUID processed = insert(OrderStatus.PROCESSED);
+        UUID shipped = insert(OrderStatus.SHIPPED);
+        UUID canceled = insert(OrderStatus.CANCELED);
+        UUID unknown = UUID.randomUUID();
+
+        List<OrderStatusTransition> transitions = transition(
+                List.of(pending, processed, shipped, canceled, unknown), OrderStatus.SHIPPED);
+
+        assertThat(transitions).extracting(OrderStatusTransition::getId, OrderStatusTransition::getPreviousStatus)
+                .containsExactlyInAnyOrder(
+                        tuple(pending, "PENDING"),
+                        tuple(processed, "PROCESSED"));
+        assertThat(transitions).allSatisfy(t -> assertThat(t.toResponse().status()).isEqualTo(OrderStatus.SHIPPED));
+
+        assertThat(version(pending)).isEqualTo(1);
+        assertThat(version(processed)).isEqualTo(1);
+        assertThat(version(shipped)).isZero();
+        assertThat(version(canceled)).isZero();
+        assertThat(status(canceled)).isEqualTo("CANCELED");
+    }
+
+    @Test
+    void existingIdsSeparateUnknownOrdersFromArchivedOnes() {
+        UUID active = insert(OrderStatus.SHIPPED);
+        UUID archived = UUID.randomUUID();
+        jdbc.update("""
+                insert into tb_orders_archive (id, customer_name, amount, status, created_at, version, archived_at)
+                values (?, 'arquivado', 5.00, 'COMPLETED', ?, 0, localtimestamp)
+                """, archived, LocalDateTime.now().minusYears(1));
+
+        List<UUID> existing = orderRepository.findExistingIds(List.of(active, archived, UUID.randomUUID()));
+
+        assertThat(existing).containsExactlyInAnyOrder(active, archived);
+    }
+
+    @Test
+    void concurrentTransitionsOfTheSameOrderApplyOnce() throws Exception {
+        UUID order = insert(OrderStatus.PENDING);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CountDownLatch commitFirst = new CountDownLatch(1);
+
+        CompletableFuture<List<OrderStatusTransition>> first = CompletableFuture.supplyAsync(() -> tx.execute(status -> {
+            List<OrderStatusTransition> applied = orderRepository.transitionStatus(List.of(order), "PROCESSED", List.of("PENDING"));
+            firstApplied.countDown();
+            await(commitFirst);
+            return applied;
+        }));
+        assertThat(firstApplied.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A segunda espera o lock da CTE e, depois do commit, relê a linha: já não está em PENDING
+        CompletableFuture<List<OrderStatusTransition>> second = CompletableFuture.supplyAsync(() -> tx.execute(status ->
+                orderRepository.transitionStatus(List.of(order), "PROCESSED", List.of("PENDING"))));
+        Thread.sleep(200);
+        commitFirst.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(version(order)).isEqualTo(1);
+    }
+
+    @Test
+    void bulkTransitionLocksRowsInIdOrder() throws Exception {
+        // Ordem do Postgres (bytes sem sinal) é a do texto; UUID.compareTo compara com sinal
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(2).sorted(Comparator.comparing(UUID::toString)).toList();
+        UUID low = ids.getFirst();
+        UUID high = ids.getLast();
+        // Inseridos do maior para o menor: varrendo na ordem física, o maior seria travado primeiro
+        insert(high, OrderStatus.PENDING);
+        insert(low, OrderStatus.PENDING);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        CountDownLatch highLocked = new CountDownLatch(1);
+        CountDownLatch releaseHigh = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> tx.executeWithoutResult(status -> {
+            jdbc.queryForList("select id from tb_orders where id = ? for update", high);
+            highLocked.countDown();
+            await(releaseHigh);
+        }));
+        assertThat(highLocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<List<OrderStatusTransition>> bulk = CompletableFuture.supplyAsync(() -> tx.execute(status ->
+                orderRepository.transitionStatus(List.of(high, low), "PROCESSED", List.of("PENDING"))));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbc.queryForObject("select count(*) from pg_stat_activity where wait_event_type = 'Lock'", Long.class) == 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+
+        // Parado no maior, o lote já tem o menor (55P03 = lock_not_available): quem travasse na ordem inversa
+        // esperaria por ele, sem ciclo
+        assertThatThrownBy(() -> jdbc.queryForList("select id from tb_orders where id = ? for update nowait", low))
+                .isInstanceOf(DataAccessException.class).hasMessageContaining("55P03");
+
+        releaseHigh.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(bulk.get(5, TimeUnit.SECONDS)).extracting(OrderStatusTransition::getId)
+                .containsExactlyInAnyOrder(low, high);
+    }
+
+    @Test
+    void entityReadBeforeABulkTransitionCannotOverwriteItAndMapsTo409() {
+        UUID id = insert(OrderStatus.PENDING);
+        Order stale = orderRepository.findById(id).orElseThrow();
+
+        transition(List.of(id), OrderStatus.PROCESSED);
+
+        stale.setStatus(OrderStatus.SHIPPED);
+        OptimisticLockingFailureException conflict = catchThrowableOfType(OptimisticLockingFailureException.class,
+                () -> new TransactionTemplate(transactionManager).execute(status -> orderRepository.save(stale)));
+
+        assertThat(conflict).isNotNull();
+        assertThat(status(id)).isEqualTo("PROCESSED");
+        ResponseEntity<ErrorResponseDTO> response =
+                new GlobalExceptionHandler(Duration.ofSeconds(1)).handleConcurrentUpdate(conflict);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    private List<OrderStatusTransition> transition(List<UUID> ids, OrderStatus newStatus) {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                orderRepository.transitionStatus(ids, newStatus.name(), BEFORE_SHIPPED.stream()
+                        .filter(current -> OrderStatus.valueOf(current).ordinal() < newStatus.ordinal())
+                        .toList()));
+    }
+
+    private UUID insert(OrderStatus status) {
+        return insert(UUID.randomUUID(), status);
+    }
+
+    private UUID insert(UUID id, OrderStatus status) {
+        jdbc.update("""
+                insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                values (?, 'cliente', 10.00, ?, localtimestamp, 0)
+                """, id, status.name());
+        return id;
+    }
+
+    private long version(UUID id) {
+        return jdbc.queryForObject("select version from tb_orders where id = ?", Long.class, id);
+    }
+
+    private String status(UUID id) {
+        return jdbc.queryForObject("select status from tb_orders where id = ?", String.class, id);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
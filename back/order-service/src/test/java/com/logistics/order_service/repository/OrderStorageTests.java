@@ -0,0 +1,218 @@
+package com.logistics.order_service.repository;
+
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Modo particionado e arquivamento sobre as funções da V5, num Postgres próprio (a conversão reescreve tb_orders)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(OrderStorageTests.EmbeddedPostgresConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStorageTests {
+
+    private static final List<String> TERMINAL = List.of("COMPLETED", "CANCELED");
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean
+        DataSource dataSource() {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return postgres.getPostgresDatabase();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // 12 meses de pedidos, um a cada hora, convertidos para o modo particionado
+    @BeforeEach
+    void partition() {
+        Long count = jdbc.queryForObject("select count(*) from tb_orders", Long.class);
+        if (count != null && count > 0) {
+            return;
+        }
+        jdbc.update("""
+                insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                select gen_random_uuid(), 'cliente ' || i, 10.50,
+                       (array['PENDING','PROCESSED','SHIPPED','DELIVERED','CANCELED','COMPLETED'])[1 + i % 6],
+                       date_trunc('month', localtimestamp) - interval '11 months' + i * interval '1 hour', 0
+                from generate_series(0, 8000) as i
+                """);
+        jdbc.queryForList("select orders_partition_by_month(2)");
+    }
+
+    @Test
+    void conversionKeepsEveryRowAndCreatesMonthlyPartitions() {
+        assertThat(seededOrders()).isEqualTo(8001);
+        assertThat(jdbc.queryForObject("select count(*) from tb_orders_default", Long.class)).isZero();
+        // 12 meses de dados (ou 13, conforme o dia) + 2 à frente
+        assertThat(jdbc.queryForObject(
+                "select count(*) from pg_inherits where inhparent = 'tb_orders'::regclass", Long.class))
+                .isGreaterThanOrEqualTo(15);
+
+        // Converter de novo não faz nada
+        jdbc.queryForList("select orders_partition_by_month(2)");
+        assertThat(seededOrders()).isEqualTo(8001);
+
+        // As mesmas consultas por keyset seguem funcionando sobre a tabela particionada
+        List<OrderResponseDTO> page = orderRepository.findFirstPageByStatus(OrderStatus.PENDING, Limit.of(10));
+        assertThat(page).hasSize(10).isSortedAccordingTo((a, b) -> b.createdAt().compareTo(a.createdAt()));
+    }
+
+    @Test
+    void recentPagesOnlyVisitRecentPartitions() {
+        LocalDateTime lastMonth = LocalDate.now().withDayOfMonth(1).minusMonths(1).atStartOfDay();
+        String plan = String.join("\n", jdbc.queryForList("""
+                explain select id from tb_orders
+                where status = 'PENDING' and (status, created_at, id) < ('PENDING', ?, 'ffffffff-ffff-ffff-ffff-ffffffffffff')
+                  and created_at >= ?
+                order by created_at desc, id desc limit 50
+                """, String.class, lastMonth.plusDays(10), lastMonth));
+
+        assertThat(plan).doesNotContain(partitionOf(LocalDate.now().minusMonths(6)));
+    }
+
+    @Test
+    void missingMonthIsCreatedAndRowsMovedOutOfTheDefaultPartition() {
+        LocalDateTime farFuture = LocalDate.now().plusYears(2).withDayOfMonth(1).atStartOfDay();
+        jdbc.update("""
+                insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                values (gen_random_uuid(), 'futuro', 1, 'PENDING', ?, 0)
+                """, farFuture);
+        assertThat(jdbc.queryForObject("select count(*) from tb_orders_default", Long.class)).isEqualTo(1);
+
+        jdbc.queryForList("select orders_ensure_month_partition(?)", farFuture.toLocalDate());
+
+        assertThat(jdbc.queryForObject("select count(*) from tb_orders_default", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from " + partitionOf(farFuture.toLocalDate()), Long.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void archiveMovesOnlyOldTerminalOrdersInBatches() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(8).atStartOfDay();
+        Long eligible = jdbc.queryForObject(
+                "select count(*) from tb_orders where status in ('COMPLETED','CANCELED') and created_at < ?",
+                Long.class, cutoff);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        List<ArchivedOrderRow> first = tx.execute(status -> archivedOrderRepository.archive(TERMINAL, cutoff, 100));
+        assertThat(first).hasSize(100).allSatisfy(row -> {
+            assertThat(row.getStatus()).isIn(TERMINAL);
+            assertThat(row.getCreatedAt()).isBefore(cutoff);
+        });
+
+        int moved = first.size();
+        List<ArchivedOrderRow> batch;
+        do {
+            batch = tx.execute(status -> archivedOrderRepository.archive(TERMINAL, cutoff, 100));
+            moved += batch.size();
+        } while (!batch.isEmpty());
+
+        assertThat((long) moved).isEqualTo(eligible);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from tb_orders where status in ('COMPLETED','CANCELED') and created_at < ?",
+                Long.class, cutoff)).isZero();
+        assertThat(archivedOrderRepository.count()).isEqualTo(eligible);
+
+        OrderResponseDTO archived = first.getFirst().toResponse();
+        assertThat(orderRepository.findResponsesByIdIn(List.of(archived.id()))).isEmpty();
+        assertThat(archivedOrderRepository.findResponsesByIdIn(List.of(archived.id()))).containsExactly(archived);
+        assertThat(archivedOrderRepository.findFirstPageByStatus(OrderStatus.COMPLETED, Limit.of(5))).hasSize(5);
+    }
+
+    @Test
+    void idempotencyKeyStillResolvesAfterItsOrderIsArchived() {
+        // Pedido anterior a todos os semeados: é o único que o arquivamento abaixo alcança
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(20).atStartOfDay();
+        jdbc.update("""
+                insert into tb_orders (id, customer_name, amount, status, created_at, version)
+                values (gen_random_uuid(), 'arquivado', 10.50, 'COMPLETED', ?, 0)
+                """, cutoff.minusDays(1));
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        OrderResponseDTO order = tx.execute(status -> archivedOrderRepository.archive(TERMINAL, cutoff, 1))
+                .getFirst().toResponse();
+        assertThat(order.customerName()).isEqualTo("arquivado");
+        String key = "archived-" + UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            idempotencyKeyRepository.claim(key, "hash");
+            idempotencyKeyRepository.complete(key, order.id());
+        });
+
+        // Sem o fallback para o arquivo, a repetição caía no "reservada sem pedido associado" (500)
+        assertThat(orderRepository.findResponsesByIdIn(List.of(order.id()))).isEmpty();
+        assertThat(idempotencyKeyRepository.findOrder(key)).hasValueSatisfying(found -> {
+            assertThat(found.getRequestHash()).isEqualTo("hash");
+            assertThat(found.toResponse()).isEqualTo(order);
+        });
+    }
+
+    // Os testes compartilham a base: o arquivamento pode ter movido parte da massa
+    private Long seededOrders() {
+        return jdbc.queryForObject("""
+                select (select count(*) from tb_orders where customer_name like 'cliente %')
+                     + (select count(*) from tb_orders_archive where customer_name like 'cliente %')
+                """, Long.class);
+    }
+
+    private static String partitionOf(LocalDate day) {
+        return "tb_orders_y%dm%02d".formatted(day.getYear(), day.getMonthValue());
+    }
+}
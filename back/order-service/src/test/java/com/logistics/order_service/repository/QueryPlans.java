@@ -0,0 +1,60 @@
+package com.logistics.order_service.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Captura o SQL que o Hibernate realmente gera e devolve o plano do Postgres junto com o tempo da chamada
+public class QueryPlans implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlans.class);
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public record Result<T>(T value, String sql, String plan, long elapsedMicros) {
+    }
+
+    public static <T> Result<T> explain(JdbcTemplate jdbc, Supplier<T> call) {
+        STATEMENTS.get().clear();
+        long start = System.nanoTime();
+        T value = call.get();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+        List<String> statements = STATEMENTS.get();
+        if (statements.size() != 1) {
+            throw new IllegalStateException("Esperava um único SQL, foram " + statements.size() + ": " + statements);
+        }
+        String sql = statements.getFirst();
+
+        // GENERIC_PLAN (Postgres 16+) planeja com os parâmetros em aberto, como num prepared statement
+        String plan = String.join("\n", jdbc.queryForList(
+                "explain (generic_plan) " + numberParameters(sql), String.class));
+
+        log.info("{} us\n{}\n{}", elapsedMicros, sql, plan);
+        return new Result<>(value, sql, plan, elapsedMicros);
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
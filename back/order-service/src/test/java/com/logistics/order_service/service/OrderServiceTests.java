@@ -0,0 +1,192 @@
+package com.logistics.order_service.service;
+
+import com.logistics.order_service.domain.dto.request.BulkUpdateOrderStatusDTO;
+import com.logistics.order_service.domain.dto.request.CreateOrderDTO;
+import com.logistics.order_service.domain.dto.response.BulkCreateOrderResponseDTO;
+import com.logistics.order_service.domain.dto.response.BulkOrderItemResultDTO;
+import com.logistics.order_service.domain.dto.response.BulkUpdateOrderStatusResponseDTO;
+import com.logistics.order_service.domain.dto.response.OrderResponseDTO;
+import com.logistics.order_service.domain.entity.Order;
+import com.logistics.order_service.domain.entity.OutboxEvent;
+import com.logistics.order_service.domain.enums.OrderStatus;
+import com.logistics.order_service.infra.cache.OrderBatchLoader;
+import com.logistics.order_service.infra.cache.OrderCache;
+import com.logistics.order_service.infra.idempotency.IdempotencyKeyStore;
+import com.logistics.order_service.infra.messaging.RabbitMQConfig;
+import com.logistics.order_service.infra.messaging.outbox.OrderOutbox;
+import com.logistics.order_service.infra.stats.OrderStats;
+import com.logistics.order_service.repository.ArchivedOrderRepository;
+import com.logistics.order_service.repository.OrderRepository;
+import com.logistics.order_service.repository.OrderStatusTransition;
+import com.logistics.order_service.repository.OutboxEventRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderServiceTests {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final OrderCache orderCache = mock(OrderCache.class);
+    private final OrderStats orderStats = spy(new OrderStats(orderRepository, mock(PlatformTransactionManager.class)));
+
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        // Outbox de verdade (conversão para a mensagem incluída); só o repositório é substituído
+        OrderOutbox orderOutbox = new OrderOutbox(outboxEventRepository, new RabbitMQConfig().messageConverter("json"));
+        orderService = new OrderService(orderRepository, mock(ArchivedOrderRepository.class), orderOutbox, orderCache,
+                mock(OrderBatchLoader.class), orderStats, mock(IdempotencyKeyStore.class), VALIDATOR);
+
+        when(orderRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(order -> {
+                order.setId(UUID.randomUUID());
+                order.setStatus(OrderStatus.PENDING);
+                order.setCreatedAt(LocalDateTime.now());
+            });
+            return orders;
+        });
+    }
+
+    @Test
+    void bulkMustHaveBetweenOneAndMaxBulkSizeOrders() {
+        assertThatThrownBy(() -> orderService.createAll(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(OrderService.MAX_BULK_SIZE));
+        assertThatThrownBy(() -> orderService.createAll(Collections.nCopies(OrderService.MAX_BULK_SIZE + 1, valid("Maria"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderRepository, outboxEventRepository, orderCache);
+
+        BulkCreateOrderResponseDTO full = orderService.createAll(Collections.nCopies(OrderService.MAX_BULK_SIZE, valid("Maria")));
+        assertThat(full.created()).isEqualTo(OrderService.MAX_BULK_SIZE);
+        assertThat(full.rejected()).isZero();
+    }
+
+    @Test
+    void invalidItemsAreReportedByIndexAndValidOnesAreStillCreated() {
+        List<CreateOrderDTO> dtos = new ArrayList<>();
+        dtos.add(valid("Maria"));
+        dtos.add(new CreateOrderDTO("<script>", new BigDecimal("10.00")));
+        dtos.add(null);
+        dtos.add(new CreateOrderDTO("João", new BigDecimal("-1")));
+        dtos.add(valid("Ana"));
+
+        BulkCreateOrderResponseDTO response = orderService.createAll(dtos);
+
+        assertThat(response.created()).isEqualTo(2);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.results()).extracting(BulkOrderItemResultDTO::index).containsExactly(0, 1, 2, 3, 4);
+        assertThat(response.results()).extracting(BulkOrderItemResultDTO::success)
+                .containsExactly(true, false, false, false, true);
+        assertThat(response.results().get(1).error()).startsWith("customerName:");
+        assertThat(response.results().get(2).error()).isEqualTo("O pedido não pode ser vazio");
+        assertThat(response.results().get(3).error()).startsWith("amount:");
+        assertThat(response.results().get(0).order().customerName()).isEqualTo("Maria");
+        assertThat(response.results().get(4).order().customerName()).isEqualTo("Ana");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eachCreatedOrderGetsOneOutboxRowAndOneStatsUpdate() {
+        BulkCreateOrderResponseDTO response = orderService.createAll(List.of(
+                valid("Maria"), new CreateOrderDTO("", BigDecimal.ONE), valid("Ana"), valid("Bia")));
+
+        List<OrderResponseDTO> created = response.results().stream()
+                .filter(BulkOrderItemResultDTO::success)
+                .map(BulkOrderItemResultDTO::order)
+                .toList();
+        assertThat(created).hasSize(3);
+
+        ArgumentCaptor<List<OutboxEvent>> outboxRows = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).saveAll(outboxRows.capture());
+        assertThat(outboxRows.getValue()).extracting(OutboxEvent::getAggregateId)
+                .containsExactlyElementsOf(created.stream().map(OrderResponseDTO::id).toList());
+
+        // Uma atualização das estatísticas para o lote, com uma entrada por pedido criado
+        verify(orderStats).recordCreated(created);
+        assertThat(orderStats.snapshot().total()).isEqualTo(3);
+        assertThat(orderStats.snapshot().totalAmount()).isEqualByComparingTo("30.00");
+        verify(orderCache).putAll(created);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkTransitionTellsUnknownIdsApartFromOrdersThatCannotMove() {
+        UUID moved = UUID.randomUUID();
+        UUID canceled = UUID.randomUUID();
+        UUID typo = UUID.randomUUID();
+        when(orderRepository.transitionStatus(any(), eq("SHIPPED"), eq(List.of("PENDING", "PROCESSED"))))
+                .thenReturn(List.of(transition(moved, "PENDING", "SHIPPED")));
+        when(orderRepository.findExistingIds(any())).thenReturn(List.of(canceled));
+
+        BulkUpdateOrderStatusResponseDTO response = orderService.updateAll(
+                new BulkUpdateOrderStatusDTO(List.of(moved, canceled, typo, moved), OrderStatus.SHIPPED));
+
+        assertThat(response.updated()).isEqualTo(1);
+        assertThat(response.orders()).extracting(OrderResponseDTO::id).containsExactly(moved);
+        assertThat(response.notFound()).containsExactly(typo);
+        assertThat(response.notEligible()).containsExactly(canceled);
+        verify(orderRepository).findExistingIds(Set.of(canceled, typo));
+        verify(orderStats).recordTransitions(List.of(new OrderStats.Transition(OrderStatus.PENDING, response.orders().getFirst())));
+
+        // Status anterior e origem seguem no evento para as outras réplicas atualizarem as estatísticas
+        ArgumentCaptor<List<OutboxEvent>> outboxRows = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository).saveAll(outboxRows.capture());
+        assertThat(outboxRows.getValue()).singleElement().satisfies(row -> {
+            assertThat(row.getAggregateId()).isEqualTo(moved);
+            assertThat(row.getPreviousStatus()).isEqualTo(OrderStatus.PENDING);
+            assertThat(row.getOrigin()).isNotBlank();
+        });
+    }
+
+    @Test
+    void bulkTransitionSkipsTheExistenceLookupWhenEveryOrderMoved() {
+        UUID moved = UUID.randomUUID();
+        when(orderRepository.transitionStatus(any(), any(), any()))
+                .thenReturn(List.of(transition(moved, "PENDING", "PROCESSED")));
+
+        BulkUpdateOrderStatusResponseDTO response = orderService.updateAll(
+                new BulkUpdateOrderStatusDTO(List.of(moved), OrderStatus.PROCESSED));
+
+        assertThat(response.notFound()).isEmpty();
+        assertThat(response.notEligible()).isEmpty();
+        verify(orderRepository, never()).findExistingIds(any());
+    }
+
+    private static OrderStatusTransition transition(UUID id, String previous, String current) {
+        LocalDateTime createdAt = LocalDateTime.now();
+        return new OrderStatusTransition() {
+            public UUID getId() { return id; }
+            public String getCustomerName() { return "Maria"; }
+            public BigDecimal getAmount() { return BigDecimal.TEN; }
+            public String getStatus() { return current; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+            public String getPreviousStatus() { return previous; }
+        };
+    }
+
+    private static CreateOrderDTO valid(String customerName) {
+        return new CreateOrderDTO(customerName, new BigDecimal("10.00"));
+    }
+}
@@ -23,19 +23,26 @@ const emptyState = document.getElementById('empty-state');
 const statusIndicator = document.getElementById('system-status-indicator');
 const statusText = document.getElementById('system-status-text');
 const counterOrders = document.getElementById('counter-orders');
+const counterThroughput = document.getElementById('counter-throughput');
 const clearFeedBtn = document.getElementById('clear-feed');
 const ordersTableBody = document.getElementById('orders-table-body');
 const refreshOrdersBtn = document.getElementById('refresh-orders');
 
 let orderCount = 0;
+let pendingSubmission = null; // { body, key } of the last order not yet confirmed by the server
 let eventSource = null;
 let reconnectTimeout = null;
+// Last event id received: on reconnect the server replays whatever was missed after it
+let lastEventId = null;
 
 // Initialize
 document.addEventListener('DOMContentLoaded', () => {
     setupOrderForm();
     connectSSE();
     fetchOrders();
+    fetchStats();
+    // Stats come from in-memory counters on the server, so polling them often is cheap
+    setInterval(fetchStats, 15000);
 
     refreshOrdersBtn.addEventListener('click', fetchOrders);
 
@@ -70,6 +77,15 @@ function setupOrderForm() {
         btnText.textContent = 'Dispatching...';
         submitSpinner.classList.remove('hidden');
 
+        // Resubmitting the same order after a timeout/error reuses its key, so the server answers with the original order
+        const body = JSON.stringify({
+            customerName: customerName,
+            amount: value
+        });
+        if (!pendingSubmission || pendingSubmission.body !== body) {
+            pendingSubmission = { body, key: crypto.randomUUID() };
+        }
+
         try {
             const controller = new AbortController();
             const timeoutId = setTimeout(() => controller.abort(), 10000);
@@ -78,11 +94,9 @@ function setupOrderForm() {
                 method: 'POST',
                 headers: {
                     'Content-Type': 'application/json',
+                    'Idempotency-Key': pendingSubmission.key,
                 },
-                body: JSON.stringify({
-                    customerName: customerName,
-                    amount: value
-                }),
+                body,
                 signal: controller.signal
             });
 
@@ -99,6 +113,7 @@ function setupOrderForm() {
             }
 
             // Success
+            pendingSubmission = null;
             formSuccess.classList.remove('hidden');
             form.reset();
             setTimeout(() => {
@@ -129,8 +144,9 @@ async function fetchOrders() {
         const response = await fetch(ORDER_API);
         if (!response.ok) throw new Error('Failed to fetch orders');
 
-        const orders = await response.json();
-        renderOrders(orders);
+        // The API returns the most recent page: { content, nextCursor }
+        const page = await response.json();
+        renderOrders(page.content);
     } catch (error) {
         console.error('Error fetching orders:', error);
         ordersTableBody.innerHTML = `
@@ -143,6 +159,19 @@ async function fetchOrders() {
     }
 }
 
+async function fetchStats() {
+    try {
+        const response = await fetch(`${ORDER_API}/stats`);
+        if (!response.ok) throw new Error('Failed to fetch stats');
+
+        const stats = await response.json();
+        counterThroughput.textContent = stats.createdPerMinute;
+    } catch (error) {
+        console.error('Error fetching stats:', error);
+        counterThroughput.textContent = '-';
+    }
+}
+
 function renderOrders(orders) {
     if (orders.length === 0) {
         ordersTableBody.innerHTML = `
@@ -263,7 +292,8 @@ function connectSSE() {
 
     updateStatus('connecting');
 
-    eventSource = new EventSource(NOTIFICATION_API);
+    const url = lastEventId ? `${NOTIFICATION_API}?lastEventId=${encodeURIComponent(lastEventId)}` : NOTIFICATION_API;
+    eventSource = new EventSource(url);
 
     eventSource.onopen = () => {
         console.log('SSE Connection opened');
@@ -275,7 +305,16 @@ function connectSSE() {
         }
     };
 
+    // The server no longer had the missed events: reload the list after a random delay so clients don't hit the API at once
+    eventSource.addEventListener('resync', () => {
+        setTimeout(fetchOrders, Math.random() * 5000);
+    });
+
     eventSource.onmessage = (event) => {
+        if (event.lastEventId) {
+            lastEventId = event.lastEventId;
+        }
+
         try {
             // Some backends send pure text, some send JSON. 
             // Try parsing as JSON first